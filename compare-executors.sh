@@ -0,0 +1,41 @@
+#!/bin/bash
+
+# Runs the scraper in both execution modes and compares end-to-end wall time.
+# Usage: ./compare-executors.sh [runs] [-- extra application arguments]
+
+RUNS=${1:-3}
+shift
+if [ "$1" = "--" ]; then
+    shift
+fi
+EXTRA_ARGS=("$@")
+
+# Build once up front so the timed runs don't include compilation
+./run.sh -n -- --help > /dev/null 2>&1
+
+run_mode() {
+    local mode=$1
+    local samples=()
+    for ((run = 1; run <= RUNS; run++)); do
+        local millis
+        millis=$(./run.sh -b -- --executor "$mode" "${EXTRA_ARGS[@]}" 2>/dev/null \
+            | grep "| Total Execution" | awk -F'|' '{gsub(/ /, "", $4); print $4}')
+        if [ -z "$millis" ]; then
+            echo "  $mode run $run: failed" >&2
+            continue
+        fi
+        echo "  $mode run $run: ${millis} ms" >&2
+        samples+=("$millis")
+    done
+    # Report times are fractional milliseconds, so average with awk
+    printf "%s\n" "${samples[@]}" | awk 'NF { sum += $1; n++ } END { if (n) printf "%.2f\n", sum / n; else print "-" }'
+}
+
+echo "Comparing execution modes over $RUNS run(s)..."
+platform_avg=$(run_mode platform)
+virtual_avg=$(run_mode virtual)
+
+echo
+printf "%-10s %15s\n" "Mode" "Avg wall (ms)"
+printf "%-10s %15s\n" "platform" "$platform_avg"
+printf "%-10s %15s\n" "virtual" "$virtual_avg"
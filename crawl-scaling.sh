@@ -0,0 +1,29 @@
+#!/bin/bash
+
+# Full-catalog crawl of the synthetic catalog at increasing event workers (requests in flight)
+# and decoding threads, to check throughput grows with connections and cores.
+# Usage: ./crawl-scaling.sh [leagues] [-- extra application arguments]
+# Workers and CPU thread counts can be overridden: WORKERS="16 64" CPUS="1 4" ./crawl-scaling.sh
+# Example: ./crawl-scaling.sh 500 -- --replay-latency 20:200 --format binary
+
+LEAGUES=${1:-500}
+shift
+if [ "$1" = "--" ]; then
+    shift
+fi
+EXTRA_ARGS=("$@")
+WORKERS=${WORKERS:-"16 64 256 1024"}
+CPUS=${CPUS:-"1 $(nproc)"}
+
+echo "Crawling $LEAGUES synthetic top leagues per run..."
+printf "%-10s %10s %14s %12s\n" "CPUs" "Workers" "Events/s" "MB/s"
+for cpus in $(printf "%s\n" $CPUS | sort -nu); do
+    for workers in $WORKERS; do
+        throughput=$(./load-test.sh "$LEAGUES" -- --crawl --executor virtual --cpu-threads "$cpus" \
+            --event-workers "$workers" --league-workers $((workers / 8 + 1)) "${EXTRA_ARGS[@]}" 2>/dev/null \
+            | sed -n '/=== Throughput ===/,/^$/p')
+        events=$(awk '$1 == "Matches" { sub(/\/s$/, "", $3); print $3 }' <<< "$throughput")
+        bytes=$(awk '$1 == "MB" && $2 == "decoded" { sub(/\/s$/, "", $4); print $4 }' <<< "$throughput")
+        printf "%-10s %10s %14s %12s\n" "$cpus" "$workers" "${events:--}" "${bytes:--}"
+    done
+done
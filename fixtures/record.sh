@@ -0,0 +1,29 @@
+#!/bin/bash
+# Records fresh API responses into this directory for the JMH benchmarks.
+# Usage: fixtures/record.sh [league_id] [event_id]
+# Without ids the first top league and its first event are picked with jq.
+
+set -e
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+BASE="https://leonbets.com/api-2/betline"
+FLAGS="reg,urlv2,mm2,rrc,nodup"
+CURL="curl -sSf --compressed"
+
+$CURL "$BASE/sports?ctag=en-US&flags=urlv2" -o "$DIR/sports.json"
+
+LEAGUE_ID="${1:-$(jq -r '[.[].regions[].leagues[] | select(.top)][0].id // empty' "$DIR/sports.json")}"
+if [ -z "$LEAGUE_ID" ]; then
+    echo "No top league found in sports.json, pass a league id" >&2
+    exit 1
+fi
+$CURL "$BASE/events/all?ctag=en-US&league_id=$LEAGUE_ID&hideClosed=true&flags=$FLAGS" -o "$DIR/league-events.json"
+
+EVENT_ID="${2:-$(jq -r '.events[0].id // empty' "$DIR/league-events.json")}"
+if [ -z "$EVENT_ID" ]; then
+    echo "No event found in league-events.json, pass an event id" >&2
+    exit 1
+fi
+$CURL "$BASE/event/all?ctag=en-US&eventId=$EVENT_ID&flags=$FLAGS,smgv2,outv2,wd2,dar" -o "$DIR/event-details.json"
+
+echo "Recorded league $LEAGUE_ID and event $EVENT_ID into $DIR"
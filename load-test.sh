@@ -0,0 +1,42 @@
+#!/bin/bash
+
+# Drives the whole pipeline against the offline replay client and reports throughput.
+# Usage: ./load-test.sh [leagues] [-- extra application arguments]
+# Example: ./load-test.sh 20000 -- --executor virtual --replay-latency 20:200 --format binary
+
+LEAGUES=${1:-1000}
+shift
+if [ "$1" = "--" ]; then
+    shift
+fi
+EXTRA_ARGS=("$@")
+
+REPORT=$(mktemp)
+trap 'rm -f "$REPORT"' EXIT
+
+# Match output and the report share stdout; sed drops everything before the report
+./run.sh -n -b -- --replay synthetic --synthetic-leagues "$LEAGUES" "${EXTRA_ARGS[@]}" \
+    | sed -n '/=== Benchmark Report ===/,$p' > "$REPORT"
+
+if [ ! -s "$REPORT" ]; then
+    echo "Load test failed, no benchmark report" >&2
+    exit 1
+fi
+cat "$REPORT"
+
+# Calls (column 3) of a report row
+calls() {
+    awk -F'|' -v stage="$1" '{ name = $2; gsub(/^ +| +$/, "", name) } name == stage { gsub(/ /, "", $3); print $3 }' "$REPORT"
+}
+
+total_ms=$(awk -F'|' '/\| Total Execution/ { gsub(/ /, "", $4); print $4 }' "$REPORT")
+leagues=$(calls "Process League")
+matches=$(calls "Print Match")
+requests=$(awk -F'|' '/\| Fetch / { gsub(/ /, "", $3); sum += $3 } END { print sum + 0 }' "$REPORT")
+
+echo
+printf "%-12s %12s %12s\n" "Throughput" "Count" "Per second"
+for row in "Leagues:${leagues:-0}" "Matches:${matches:-0}" "Requests:${requests:-0}"; do
+    awk -v name="${row%%:*}" -v count="${row#*:}" -v ms="$total_ms" \
+        'BEGIN { printf "%-12s %12d %12.1f\n", name, count, (ms > 0 ? count * 1000 / ms : 0) }'
+done
@@ -5,7 +5,16 @@ PRINT_TO_FILE=""
 REPORTS_DIR=""
 TIMEZONE=""
 BENCHMARK=""
+DECODER=""
+FORMAT=""
+DAEMON=""
+EXECUTOR=""
+POLL_INTERVALS=""
+FAST_START=""
+RECORDING=""
+EXTRA_ARGS=()
 JAR_FILE="target/parser-1.0-SNAPSHOT.jar"
+CDS_ARCHIVE="target/parser.jsa"
 SRC_DIR="src/main/java"
 POM_FILE="pom.xml"
 
@@ -18,8 +27,17 @@ show_usage() {
     echo "  -d, --dir <path>       Set custom directory for report files"
     echo "  -t, --timezone <zone>  Set timezone (e.g., UTC, Europe/London)"
     echo "  -f, --force-rebuild    Force rebuild the project"
+    echo "  -o, --format <format>  Output format: text (default), ndjson, csv or binary"
+    echo "  -e, --decoder <mode>   Response decoding: streaming (default) or tree"
+    echo "  -D, --daemon           Keep running and re-poll leagues on an interval"
+    echo "  -i, --poll-interval <spec>"
+    echo "                         League poll interval in seconds, or <sport>=<seconds> (repeatable)"
+    echo "  -x, --executor <mode>  Thread model: platform (default) or virtual"
+    echo "  -s, --fast-start       Start from a class data archive of a training run, built when missing"
+    echo "  -r, --record <file>    Write a flight recording with request phases and scrape stages to <file>"
     echo "  -b, --benchmark        Enable performance benchmarking"
     echo "  -h, --help             Show this help message"
+    echo "  -- <args>              Pass the remaining arguments to the application unchanged"
 }
 
 # Function to check if rebuild is needed
@@ -79,6 +97,34 @@ while [[ $# -gt 0 ]]; do
             FORCE_REBUILD=true
             shift
             ;;
+        -o|--format)
+            FORMAT="--format $2"
+            shift 2
+            ;;
+        -e|--decoder)
+            DECODER="--decoder $2"
+            shift 2
+            ;;
+        -D|--daemon)
+            DAEMON="--daemon"
+            shift
+            ;;
+        -i|--poll-interval)
+            POLL_INTERVALS="$POLL_INTERVALS --poll-interval $2"
+            shift 2
+            ;;
+        -x|--executor)
+            EXECUTOR="--executor $2"
+            shift 2
+            ;;
+        -s|--fast-start)
+            FAST_START="--fast-start"
+            shift
+            ;;
+        -r|--record)
+            RECORDING="$2"
+            shift 2
+            ;;
         -b|--benchmark)
             BENCHMARK="--benchmark"
             shift
@@ -87,6 +133,11 @@ while [[ $# -gt 0 ]]; do
             show_usage
             exit 0
             ;;
+        --)
+            shift
+            EXTRA_ARGS=("$@")
+            break
+            ;;
         *)
             echo "Unknown option: $1"
             show_usage
@@ -117,5 +168,24 @@ if [ ! -f "$JAR_FILE" ]; then
     exit 1
 fi
 
+# The archive only matches the jar it was trained on, so a rebuilt jar needs a new one
+JAVA_OPTS=()
+if [ -n "$FAST_START" ]; then
+    if [ ! -f "$CDS_ARCHIVE" ] || [ "$JAR_FILE" -nt "$CDS_ARCHIVE" ]; then
+        echo "Training the class data archive..."
+        rm -f "$CDS_ARCHIVE"
+        if ! java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -jar "$JAR_FILE" --cds-training > /dev/null 2>&1; then
+            echo "Training run failed, starting without the archive"
+        fi
+    fi
+    if [ -f "$CDS_ARCHIVE" ]; then
+        JAVA_OPTS=(-XX:SharedArchiveFile="$CDS_ARCHIVE")
+    fi
+fi
+# The profile settings add TLS handshakes and socket reads to the application's own events
+if [ -n "$RECORDING" ]; then
+    JAVA_OPTS+=(-XX:StartFlightRecording=settings=profile,filename="$RECORDING")
+fi
+
 # Run the application with provided arguments
-java -jar "$JAR_FILE" $PRINT_TO_FILE $REPORTS_DIR $TIMEZONE $BENCHMARK 
\ No newline at end of file
+java "${JAVA_OPTS[@]}" -jar "$JAR_FILE" $FAST_START $PRINT_TO_FILE $REPORTS_DIR $TIMEZONE $FORMAT $DECODER $EXECUTOR $DAEMON $POLL_INTERVALS $BENCHMARK "${EXTRA_ARGS[@]}" 
\ No newline at end of file
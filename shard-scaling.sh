@@ -0,0 +1,30 @@
+#!/bin/bash
+
+# Runs the same synthetic pass with an increasing number of shard worker processes and
+# tabulates the merged throughput reported by the coordinator.
+# Usage: ./shard-scaling.sh [leagues] [-- extra application arguments]
+# Shard counts can be overridden: SHARDS="1 2 4 8" ./shard-scaling.sh
+# Example: ./shard-scaling.sh 800 -- --replay-latency 50:200 --event-workers 2
+
+LEAGUES=${1:-800}
+shift
+if [ "$1" = "--" ]; then
+    shift
+fi
+EXTRA_ARGS=("$@")
+SHARDS=${SHARDS:-"1 2 4"}
+
+# Build once up front so the timed runs don't include compilation
+./run.sh -n -- --help > /dev/null 2>&1
+
+printf "%-8s %10s %12s %14s\n" "Shards" "Matches" "Seconds" "Matches/s"
+for shards in $SHARDS; do
+    # "Shard pass: <n> shards (<lost> lost), <matches> matches in <s> s, <rate> matches/s"
+    summary=$(./run.sh -n -- --shards "$shards" --replay synthetic --synthetic-leagues "$LEAGUES" \
+        "${EXTRA_ARGS[@]}" 2>&1 >/dev/null | grep "^Shard pass:")
+    if [ -z "$summary" ]; then
+        printf "%-8s %10s %12s %14s\n" "$shards" "-" "-" "failed"
+        continue
+    fi
+    awk -v shards="$shards" '{ printf "%-8s %10s %12s %14s\n", shards, $7, $10, $12 }' <<< "$summary"
+done
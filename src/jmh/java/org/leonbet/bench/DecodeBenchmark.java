@@ -0,0 +1,62 @@
+package org.leonbet.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.leonbet.client.Endpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two decode paths of LeonBetsApiClient on recorded responses: streaming
+ * binding straight from bytes against building the whole tree from a String first.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+    @Param({"sports", "league-events", "event-details"})
+    private String endpoint;
+
+    private ObjectMapper mapper;
+    private Endpoint<?> target;
+    private ObjectReader reader;
+    private byte[] body;
+    private String text;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper();
+        target = Endpoint.fromKey(endpoint);
+        reader = target.reader(mapper);
+        body = Fixtures.load(target);
+        text = new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object streaming() throws IOException {
+        return reader.readValue(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public Object tree() throws IOException {
+        return mapper.readerFor(target.getType())
+                .readValue(mapper.readTree(text).at(target.getPointer()));
+    }
+}
@@ -0,0 +1,27 @@
+package org.leonbet.bench;
+
+import org.leonbet.client.Endpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Recorded API responses under fixtures/, one file per endpoint key.
+ * Point -Dfixtures.dir elsewhere to benchmark against a fresh recording.
+ */
+public final class Fixtures {
+    private static final Path DIR = Path.of(System.getProperty("fixtures.dir", "fixtures"));
+
+    private Fixtures() {} // Prevent instantiation
+
+    public static byte[] load(Endpoint<?> endpoint) {
+        Path file = DIR.resolve(endpoint.getKey() + ".json");
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Missing fixture " + file.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.leonbet.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.leonbet.client.Endpoint;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.replay.SyntheticCatalog;
+import org.leonbet.store.OddsStore;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retained heap of the odds store per 100k runners, next to the boxed maps of decoded records
+ * it replaces. Not a JMH benchmark, run it on its own:
+ * java -cp target/benchmarks.jar org.leonbet.bench.OddsStoreFootprint [runners]
+ */
+public final class OddsStoreFootprint {
+    private static final int MARKETS = 30;
+    private static final int RUNNERS_PER_MARKET = 3;
+
+    private OddsStoreFootprint() {} // Prevent instantiation
+
+    public static void main(String[] args) throws IOException {
+        int runners = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int eventCount = runners / (MARKETS * RUNNERS_PER_MARKET);
+
+        // Response bodies are rendered up front, only what each layout keeps is counted
+        SyntheticCatalog catalog = new SyntheticCatalog(1, 1, MARKETS, RUNNERS_PER_MARKET);
+        ObjectReader reader = Endpoint.EVENT_DETAILS.reader(new ObjectMapper());
+        List<byte[]> bodies = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            bodies.add(catalog.body(Endpoint.EVENT_DETAILS, 1_000_000_000L + i));
+        }
+
+        long boxedBytes = measureBoxed(reader, bodies);
+        OddsStore store = new OddsStore(16);
+        long storeBytes = measureStore(reader, bodies, store);
+
+        System.out.printf("%-28s %12s %16s%n", "Layout", "Runners", "Bytes/100k");
+        System.out.printf("%-28s %12d %16d%n", "HashMap<Long, ...> records", store.getRunnerCount(),
+                boxedBytes * 100_000 / store.getRunnerCount());
+        System.out.printf("%-28s %12d %16d%n", "OddsStore (measured)", store.getRunnerCount(),
+                storeBytes * 100_000 / store.getRunnerCount());
+        System.out.printf("%-28s %12d %16d%n", "OddsStore (estimated)", store.getRunnerCount(),
+                store.estimatedBytes() * 100_000 / store.getRunnerCount());
+    }
+
+    // Each layout is built in its own frame, so nothing of it outlives the measurement
+    private static long measureBoxed(ObjectReader reader, List<byte[]> bodies) throws IOException {
+        long baseline = usedHeap();
+        Map<Long, List<Market>> events = new HashMap<>();
+        Map<Long, Double> prices = new HashMap<>();
+        for (byte[] body : bodies) {
+            Event event = reader.readValue(body);
+            events.put(event.id(), event.markets());
+            for (Market market : event.markets()) {
+                for (Runner runner : market.runners()) {
+                    prices.put(runner.id(), runner.price());
+                }
+            }
+        }
+        long bytes = usedHeap() - baseline;
+        Reference.reachabilityFence(events);
+        Reference.reachabilityFence(prices);
+        return bytes;
+    }
+
+    private static long measureStore(ObjectReader reader, List<byte[]> bodies, OddsStore store) throws IOException {
+        long baseline = usedHeap();
+        for (byte[] body : bodies) {
+            store.update("Football", "Premier League", reader.readValue(body));
+        }
+        return usedHeap() - baseline;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
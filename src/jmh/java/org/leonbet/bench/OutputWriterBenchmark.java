@@ -0,0 +1,98 @@
+package org.leonbet.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.leonbet.client.Endpoint;
+import org.leonbet.model.Event;
+import org.leonbet.output.TextSink;
+import org.leonbet.util.OutputWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the writer behind PrinterUtils with several producers handing over
+ * rendered matches. "discard" isolates the queue and batching, "file" adds the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class OutputWriterBenchmark {
+    @Param({"discard", "file"})
+    private String target;
+
+    private byte[] block;
+    private Path file;
+    private WritableByteChannel channel;
+    private OutputWriter writer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Event event = Endpoint.EVENT_DETAILS.reader(new ObjectMapper())
+                .readValue(Fixtures.load(Endpoint.EVENT_DETAILS));
+        block = TextSink.render("Football", "Premier League", event).getBytes(StandardCharsets.UTF_8);
+
+        if (target.equals("file")) {
+            file = Files.createTempFile("output-writer", ".txt");
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } else {
+            channel = new DiscardChannel();
+        }
+        writer = new OutputWriter(List.of(channel), 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        channel.close();
+        if (file != null) Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void write() {
+        writer.write(block);
+    }
+
+    private static final class DiscardChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.leonbet.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.leonbet.client.Endpoint;
+import org.leonbet.model.Event;
+import org.leonbet.output.CsvSink;
+import org.leonbet.output.NdjsonSink;
+import org.leonbet.output.TextSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Formatting cost of one match per output format, without the write itself
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    private Event event;
+
+    @Setup
+    public void setup() throws IOException {
+        event = Endpoint.EVENT_DETAILS.reader(new ObjectMapper())
+                .readValue(Fixtures.load(Endpoint.EVENT_DETAILS));
+    }
+
+    @Benchmark
+    public String text() {
+        return TextSink.render("Football", "Premier League", event);
+    }
+
+    @Benchmark
+    public byte[] ndjson() {
+        return NdjsonSink.render("Football", "Premier League", event);
+    }
+
+    @Benchmark
+    public String csv() {
+        return CsvSink.render("Football", "Premier League", event);
+    }
+}
@@ -0,0 +1,39 @@
+package org.leonbet.bench;
+
+import org.leonbet.client.ApiUrlBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBuilderBenchmark {
+    private long id = 1970324836974595L;
+
+    @Benchmark
+    public String sports() {
+        return ApiUrlBuilder.sports().build();
+    }
+
+    @Benchmark
+    public String leagueEvents() {
+        return ApiUrlBuilder.leagueEvents(id).build();
+    }
+
+    @Benchmark
+    public String eventDetails() {
+        return ApiUrlBuilder.eventDetails(id).build();
+    }
+}
@@ -0,0 +1,42 @@
+package org.leonbet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.leonbet.bench.Fixtures;
+import org.leonbet.client.Endpoint;
+import org.leonbet.model.Sport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The catalog walk that picks top leagues of the target sports in processSports
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetLeagueBenchmark {
+    private List<Sport> sports;
+
+    @Setup
+    public void setup() throws IOException {
+        sports = Endpoint.SPORTS.reader(new ObjectMapper()).readValue(Fixtures.load(Endpoint.SPORTS));
+    }
+
+    @Benchmark
+    public void forEachTargetLeague(Blackhole blackhole) {
+        SportScraperService.forEachTargetLeague(sports, (sport, league) -> blackhole.consume(league.id()));
+    }
+}
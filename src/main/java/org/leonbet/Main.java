@@ -1,37 +1,281 @@
 package org.leonbet;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.leonbet.client.AimdLimit;
 import org.leonbet.client.ApiClient;
+import org.leonbet.client.CachingApiClient;
+import org.leonbet.client.CoalescingApiClient;
+import org.leonbet.client.DecodeMode;
+import org.leonbet.client.Endpoint;
+import org.leonbet.client.HttpClientFactory;
 import org.leonbet.client.LeonBetsApiClient;
+import org.leonbet.client.LimitingApiClient;
+import org.leonbet.client.ResilientApiClient;
+import org.leonbet.client.RetryBudget;
+import org.leonbet.client.TokenBucket;
 import org.leonbet.config.AppConfig;
+import org.leonbet.config.ExecutionMode;
+import org.leonbet.history.PriceHistoryLog;
+import org.leonbet.history.PriceHistoryReader;
+import org.leonbet.output.BinarySnapshotReader;
+import org.leonbet.output.DiffSink;
+import org.leonbet.output.OutputFormat;
+import org.leonbet.output.OutputSink;
+import org.leonbet.replay.FixtureSource;
+import org.leonbet.replay.LatencyModel;
+import org.leonbet.replay.ReplayApiClient;
+import org.leonbet.replay.ResponseSource;
+import org.leonbet.replay.SyntheticCatalog;
 import org.leonbet.service.SportScraperService;
+import org.leonbet.shard.ShardClient;
+import org.leonbet.shard.ShardCoordinator;
+import org.leonbet.store.OddsStore;
 import org.leonbet.util.BenchmarkUtils;
+import org.leonbet.util.MetricsServer;
 import org.leonbet.util.PrinterUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class Main {
+    private static String snapshotToRead;
+    private static long historyEventToRead;
+    private static boolean cdsTraining;
+
     public static void main(String[] args) {
         if (args.length > 0) {
             processArguments(args);
         }
 
+        if (snapshotToRead != null) {
+            readSnapshot(snapshotToRead);
+            return;
+        }
+        if (historyEventToRead != 0) {
+            readHistory(historyEventToRead);
+            return;
+        }
+
+        if (AppConfig.getShards() > 0) {
+            System.exit(new ShardCoordinator(AppConfig.getShards(), workerArguments(args), AppConfig.isDaemon()).run());
+        }
+
+        // Binary snapshots only make sense in a file
+        if (!AppConfig.getOutputFormat().isText()) {
+            AppConfig.setPrintToFile(true);
+        }
         if (AppConfig.isPrintToFile()) {
-            String outputFilePath = AppConfig.getDateFormatter().format(Instant.now()) + ".txt";
+            // Every shard writes its own file
+            String shardSuffix = AppConfig.getShardIndex() >= 0 ? ".shard-" + AppConfig.getShardIndex() : "";
+            String outputFilePath = AppConfig.getDateFormatter().format(Instant.now()) + shardSuffix
+                    + "." + AppConfig.getOutputFormat().getExtension();
             PrinterUtils.initFile(outputFilePath);
         }
+        OutputSink sink = AppConfig.getOutputFormat().createSink();
+        if (AppConfig.isDiffOutput()) {
+            sink = new DiffSink(sink, new OddsStore(1024, "Diff State"), AppConfig.getDiffSnapshotInterval());
+        }
 
-        ExecutorService executor = Executors.newFixedThreadPool(AppConfig.MAX_THREADS);
-        HttpClient httpClient = HttpClient.newBuilder().executor(executor).build();
+        // Orchestration runs request callbacks and future composition; CPU-bound decoding goes
+        // to the cpu pool. In platform mode both are the same fixed pool. The HTTP client never
+        // shares threads with decoding: a streaming decode blocks until body bytes arrive, and
+        // only the client's executor delivers them, so a shared pool could deadlock.
+        ExecutorService executor;
+        ExecutorService cpuExecutor;
+        ExecutorService httpExecutor;
+        if (AppConfig.getExecutionMode() == ExecutionMode.VIRTUAL) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            cpuExecutor = Executors.newFixedThreadPool(AppConfig.getCpuThreads());
+            httpExecutor = executor;
+        } else {
+            executor = Executors.newFixedThreadPool(AppConfig.MAX_THREADS);
+            cpuExecutor = executor;
+            httpExecutor = Executors.newCachedThreadPool(Thread.ofPlatform().name("http-client-", 0).daemon().factory());
+        }
+        if (AppConfig.getMetricsPort() > 0) {
+            // Shard workers serve metrics on consecutive ports from the configured one
+            if (AppConfig.getShardIndex() > 0) {
+                AppConfig.setMetricsPort(AppConfig.getMetricsPort() + AppConfig.getShardIndex());
+            }
+            startMetrics(executor, cpuExecutor);
+        }
         ObjectMapper mapper = new ObjectMapper();
+        if (AppConfig.isFastStart()) {
+            // Overlaps with the first request, which is mostly waiting for the network
+            cpuExecutor.execute(() -> {
+                long startTime = System.nanoTime();
+                Endpoint.warmUp(mapper);
+                BenchmarkUtils.record("Decoder Warm-up", startTime);
+            });
+        }
+
+        ApiClient apiClient;
+        if (AppConfig.getReplaySource() != null) {
+            apiClient = new ReplayApiClient(createResponseSource(AppConfig.getReplaySource()), mapper,
+                    AppConfig.getReplayLatency(), AppConfig.getReplayErrorRate(), cpuExecutor);
+            if (cdsTraining) {
+                // Nothing is sent, but the HTTP client classes end up in the archive as well
+                HttpClientFactory.create(httpExecutor);
+                HttpRequest.newBuilder(URI.create(Endpoint.SPORTS.url(0))).build();
+            }
+        } else {
+            HttpClient httpClient = HttpClientFactory.create(httpExecutor);
+            LeonBetsApiClient leonBetsClient = new LeonBetsApiClient(httpClient, mapper, cpuExecutor);
+            if (AppConfig.isWarmUp()) {
+                leonBetsClient.warmUp();
+            }
+            apiClient = leonBetsClient;
+        }
+        if (AppConfig.isAdaptiveLimit() || AppConfig.getMaxRequestsPerSecond() > 0) {
+            // A rate ceiling on its own leaves concurrency unbounded
+            AimdLimit limit = AppConfig.isAdaptiveLimit()
+                    ? new AimdLimit(Math.min(AppConfig.MAX_THREADS * 2, AppConfig.getMaxConcurrency()), 1,
+                            AppConfig.getMaxConcurrency())
+                    : null;
+            TokenBucket rateLimit = AppConfig.getMaxRequestsPerSecond() > 0
+                    ? new TokenBucket(AppConfig.getMaxRequestsPerSecond(), (int) Math.ceil(AppConfig.getMaxRequestsPerSecond()))
+                    : null;
+            apiClient = new LimitingApiClient(apiClient, limit, rateLimit);
+        }
+        if (AppConfig.isResilienceEnabled()) {
+            // Retries and hedges go through the limiter; coalesced callers share the retried call.
+            // The budget allows a burst of 10 extra requests before the ratio applies.
+            apiClient = new ResilientApiClient(apiClient, AppConfig.getRequestTimeout(), AppConfig.getMaxRetries(),
+                    AppConfig.getRetryBackoff(), new RetryBudget(AppConfig.getRetryBudget(), 10),
+                    AppConfig.isHedgeRequests(), AppConfig.isDaemon() ? null : AppConfig.getRunDeadline());
+        }
+        if (AppConfig.isCoalesceRequests()) {
+            apiClient = new CoalescingApiClient(apiClient);
+        }
+        if (AppConfig.isCacheEnabled()) {
+            apiClient = new CachingApiClient(apiClient, endpoint -> AppConfig.getCacheTtl(endpoint.getKey()),
+                    AppConfig.getCacheMaxEntries(), AppConfig.getCacheMaxBytes());
+        }
+        OddsStore store = AppConfig.isOddsStore() ? new OddsStore(1024) : null;
+        PriceHistoryLog history = null;
+        if (AppConfig.getHistoryDir() != null) {
+            // Segments are numbered per directory, so every shard keeps its own
+            Path historyDir = AppConfig.getShardIndex() >= 0
+                    ? Path.of(AppConfig.getHistoryDir(), "shard-" + AppConfig.getShardIndex())
+                    : Path.of(AppConfig.getHistoryDir());
+            try {
+                history = new PriceHistoryLog(historyDir, AppConfig.getHistorySegmentBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open price history in " + historyDir, e);
+            }
+        }
+        ShardClient shard = null;
+        if (AppConfig.getShardIndex() >= 0) {
+            try {
+                shard = ShardClient.connect(AppConfig.getShardIndex(), AppConfig.getCoordinatorPort());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to reach the shard coordinator", e);
+            }
+        }
+        SportScraperService scraperService = new SportScraperService(apiClient, executor, cpuExecutor, sink, store,
+                history, shard);
         
-        ApiClient apiClient = new LeonBetsApiClient(httpClient, mapper, executor);
-        SportScraperService scraperService = new SportScraperService(apiClient, executor);
-        
-        scraperService.start();
+        if (AppConfig.isDaemon()) {
+            scraperService.startDaemon();
+        } else {
+            scraperService.start();
+            double target = AppConfig.getTargetEventsPerSecond();
+            if (target > 0 && scraperService.getMatchesPerSecond() < target) {
+                System.err.printf("Throughput target missed: %.1f events/s, target %.1f%n",
+                        scraperService.getMatchesPerSecond(), target);
+                System.exit(2);
+            }
+        }
+    }
+
+    // The coordinator's own arguments minus the shard count, so workers don't start coordinators
+    private static List<String> workerArguments(String[] args) {
+        List<String> workerArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--shards")) {
+                i++;
+            } else {
+                workerArgs.add(args[i]);
+            }
+        }
+        return workerArgs;
+    }
+
+    private static void startMetrics(ExecutorService executor, ExecutorService cpuExecutor) {
+        BenchmarkUtils.setEnabled(true);
+        registerExecutorGauges("Executor", executor);
+        if (cpuExecutor != executor) {
+            registerExecutorGauges("CPU Executor", cpuExecutor);
+        }
+        BenchmarkUtils.registerGauge("Output Queue Depth", PrinterUtils::getQueueDepth);
+        try {
+            MetricsServer server = new MetricsServer(AppConfig.getMetricsPort());
+            System.err.println("Metrics at http://localhost:" + server.getPort() + "/metrics");
+        } catch (IOException e) {
+            System.err.println("Failed to start metrics endpoint: " + e.getMessage());
+        }
+    }
+
+    // Virtual thread executors have neither a queue nor a fixed set of threads to report
+    private static void registerExecutorGauges(String name, ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            BenchmarkUtils.registerGauge(name + " Queue Depth", () -> pool.getQueue().size());
+            BenchmarkUtils.registerGauge(name + " Active Threads", pool::getActiveCount);
+        }
+    }
+
+    private static ResponseSource createResponseSource(String source) {
+        if (source.equals("synthetic")) {
+            return new SyntheticCatalog(AppConfig.getSyntheticLeagues(), AppConfig.getSyntheticEvents(),
+                    AppConfig.getSyntheticMarkets(), 3);
+        }
+        try {
+            return new FixtureSource(Path.of(source));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load fixtures from " + source, e);
+        }
+    }
+
+    // Prints a binary odds snapshot in the selected text format
+    private static void readSnapshot(String file) {
+        if (!AppConfig.getOutputFormat().isText()) {
+            AppConfig.setOutputFormat(OutputFormat.TEXT);
+        }
+        try {
+            BinarySnapshotReader.read(Path.of(file), AppConfig.getOutputFormat().createSink());
+        } catch (IOException e) {
+            System.err.println("Failed to read snapshot: " + e.getMessage());
+        } finally {
+            PrinterUtils.close();
+        }
+    }
+
+    // Prints every recorded price of one event, oldest first
+    private static void readHistory(long eventId) {
+        Path dir = Path.of(AppConfig.getHistoryDir() != null ? AppConfig.getHistoryDir() : "history");
+        try {
+            int count = PriceHistoryReader.read(dir, eventId, (event, market, runner, price, timestamp) ->
+                    PrinterUtils.print(0, AppConfig.getDateFormatter().format(Instant.ofEpochMilli(timestamp))
+                            + "\t" + market + "\t" + runner + "\t" + price));
+            if (count == 0) {
+                System.err.println("No history for event " + eventId + " in " + dir);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read price history: " + e.getMessage());
+        } finally {
+            PrinterUtils.close();
+        }
     }
 
     private static void processArguments(String[] args) {
@@ -54,6 +298,266 @@ public class Main {
                         AppConfig.setTimeZone(args[++i]);
                     }
                     break;
+                case "--format":
+                    if (i + 1 < args.length) {
+                        AppConfig.setOutputFormat(OutputFormat.fromString(args[++i]));
+                    }
+                    break;
+                case "--read-snapshot":
+                    if (i + 1 < args.length) {
+                        snapshotToRead = args[++i];
+                    }
+                    break;
+                case "--decoder":
+                    if (i + 1 < args.length) {
+                        AppConfig.setDecodeMode(DecodeMode.fromString(args[++i]));
+                    }
+                    break;
+                case "--daemon":
+                    AppConfig.setDaemon(true);
+                    break;
+                case "--poll-interval":
+                    if (i + 1 < args.length) {
+                        AppConfig.setPollInterval(args[++i]);
+                    }
+                    break;
+                case "--sports":
+                    if (i + 1 < args.length) {
+                        AppConfig.setTargetSports(args[++i]);
+                    }
+                    break;
+                case "--all-leagues":
+                    AppConfig.setTopLeaguesOnly(false);
+                    break;
+                case "--max-matches":
+                    if (i + 1 < args.length) {
+                        AppConfig.setMaxMatches(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--include-live":
+                    AppConfig.setIncludeLive(true);
+                    break;
+                case "--crawl":
+                    AppConfig.setFullCrawl();
+                    break;
+                case "--target-eps":
+                    if (i + 1 < args.length) {
+                        AppConfig.setTargetEventsPerSecond(Double.parseDouble(args[++i]));
+                    }
+                    break;
+                case "--shards":
+                    if (i + 1 < args.length) {
+                        AppConfig.setShards(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--shard-worker":
+                    if (i + 1 < args.length) {
+                        AppConfig.setShardIndex(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--coordinator-port":
+                    if (i + 1 < args.length) {
+                        AppConfig.setCoordinatorPort(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--kickoff-refresh":
+                    if (i + 1 < args.length) {
+                        AppConfig.setKickoffRefreshInterval(args[++i]);
+                    }
+                    break;
+                case "--sports-refresh":
+                    if (i + 1 < args.length) {
+                        AppConfig.setSportsRefreshInterval(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--poll-jitter":
+                    if (i + 1 < args.length) {
+                        AppConfig.setPollJitter(Double.parseDouble(args[++i]));
+                    }
+                    break;
+                case "--executor":
+                    if (i + 1 < args.length) {
+                        AppConfig.setExecutionMode(ExecutionMode.fromString(args[++i]));
+                    }
+                    break;
+                case "--cpu-threads":
+                    if (i + 1 < args.length) {
+                        AppConfig.setCpuThreads(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--league-workers":
+                    if (i + 1 < args.length) {
+                        AppConfig.setLeagueParallelism(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--event-workers":
+                    if (i + 1 < args.length) {
+                        AppConfig.setEventParallelism(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--render-workers":
+                    if (i + 1 < args.length) {
+                        AppConfig.setRenderParallelism(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--queue-capacity":
+                    if (i + 1 < args.length) {
+                        AppConfig.setPipelineQueueCapacity(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--no-compression":
+                    AppConfig.setCompression(false);
+                    break;
+                case "--http1":
+                    AppConfig.setHttpVersion(HttpClient.Version.HTTP_1_1);
+                    break;
+                case "--connect-timeout":
+                    if (i + 1 < args.length) {
+                        AppConfig.setConnectTimeout(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--keepalive":
+                    if (i + 1 < args.length) {
+                        AppConfig.setKeepAliveSeconds(Long.parseLong(args[++i]));
+                    }
+                    break;
+                case "--warmup":
+                    AppConfig.setWarmUp(true);
+                    break;
+                case "--fast-start":
+                    AppConfig.setFastStart(true);
+                    break;
+                case "--cds-training":
+                    // A short offline pass through every stage, run by run.sh to build the class archive
+                    cdsTraining = true;
+                    AppConfig.setFastStart(true);
+                    AppConfig.setReplaySource("synthetic");
+                    AppConfig.setSyntheticLeagues(20);
+                    AppConfig.setReplayLatency(LatencyModel.fromString("1:5"));
+                    break;
+                case "--adaptive-limit":
+                    AppConfig.setAdaptiveLimit(true);
+                    break;
+                case "--max-concurrency":
+                    if (i + 1 < args.length) {
+                        AppConfig.setMaxConcurrency(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--max-rps":
+                    if (i + 1 < args.length) {
+                        AppConfig.setMaxRequestsPerSecond(Double.parseDouble(args[++i]));
+                    }
+                    break;
+                case "--coalesce":
+                    AppConfig.setCoalesceRequests(true);
+                    break;
+                case "--request-timeout":
+                    if (i + 1 < args.length) {
+                        AppConfig.setRequestTimeout(Duration.ofMillis(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--run-deadline":
+                    if (i + 1 < args.length) {
+                        AppConfig.setRunDeadline(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--retries":
+                    if (i + 1 < args.length) {
+                        AppConfig.setMaxRetries(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--retry-backoff":
+                    if (i + 1 < args.length) {
+                        AppConfig.setRetryBackoff(Duration.ofMillis(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--retry-budget":
+                    if (i + 1 < args.length) {
+                        AppConfig.setRetryBudget(Double.parseDouble(args[++i]));
+                    }
+                    break;
+                case "--hedge":
+                    AppConfig.setHedgeRequests(true);
+                    break;
+                case "--cache":
+                    AppConfig.setCacheEnabled(true);
+                    break;
+                case "--cache-ttl":
+                    if (i + 1 < args.length) {
+                        AppConfig.setCacheTtl(args[++i]);
+                    }
+                    break;
+                case "--cache-size":
+                    if (i + 1 < args.length) {
+                        AppConfig.setCacheMaxEntries(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--cache-max-mb":
+                    if (i + 1 < args.length) {
+                        AppConfig.setCacheMaxBytes(Long.parseLong(args[++i]) * 1024 * 1024);
+                    }
+                    break;
+                case "--metrics-port":
+                    if (i + 1 < args.length) {
+                        AppConfig.setMetricsPort(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--odds-store":
+                    AppConfig.setOddsStore(true);
+                    break;
+                case "--diff":
+                    AppConfig.setDiffOutput(true);
+                    break;
+                case "--diff-snapshot":
+                    if (i + 1 < args.length) {
+                        AppConfig.setDiffSnapshotInterval(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    }
+                    break;
+                case "--history-dir":
+                    if (i + 1 < args.length) {
+                        AppConfig.setHistoryDir(args[++i]);
+                    }
+                    break;
+                case "--history-segment-mb":
+                    if (i + 1 < args.length) {
+                        AppConfig.setHistorySegmentBytes(Long.parseLong(args[++i]) * 1024 * 1024);
+                    }
+                    break;
+                case "--read-history":
+                    if (i + 1 < args.length) {
+                        historyEventToRead = Long.parseLong(args[++i]);
+                    }
+                    break;
+                case "--replay":
+                    if (i + 1 < args.length) {
+                        AppConfig.setReplaySource(args[++i]);
+                    }
+                    break;
+                case "--replay-latency":
+                    if (i + 1 < args.length) {
+                        AppConfig.setReplayLatency(LatencyModel.fromString(args[++i]));
+                    }
+                    break;
+                case "--replay-error-rate":
+                    if (i + 1 < args.length) {
+                        AppConfig.setReplayErrorRate(Double.parseDouble(args[++i]));
+                    }
+                    break;
+                case "--synthetic-leagues":
+                    if (i + 1 < args.length) {
+                        AppConfig.setSyntheticLeagues(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--synthetic-events":
+                    if (i + 1 < args.length) {
+                        AppConfig.setSyntheticEvents(Integer.parseInt(args[++i]));
+                    }
+                    break;
+                case "--synthetic-markets":
+                    if (i + 1 < args.length) {
+                        AppConfig.setSyntheticMarkets(Integer.parseInt(args[++i]));
+                    }
+                    break;
                 case "--benchmark":
                     BenchmarkUtils.setEnabled(true);
                     break;
@@ -76,6 +580,66 @@ public class Main {
         System.out.println("  --no-print-to-file     Disable writing output to a file (default)");
         System.out.println("  --reports-dir <dir>    Set custom directory for report files");
         System.out.println("  --timezone <zone>      Set timezone (e.g., UTC, Europe/London)");
+        System.out.println("  --format <format>      Output format: text (default), ndjson, csv or binary");
+        System.out.println("  --read-snapshot <file> Print a binary snapshot in the selected text format");
+        System.out.println("  --decoder <mode>       Response decoding: streaming (default) or tree");
+        System.out.println("  --sports <list>        Comma-separated sports to scrape, or 'all' (default: Football,");
+        System.out.println("                         Tennis, Ice Hockey, Basketball)");
+        System.out.println("  --all-leagues          Scrape every league, not only the top ones");
+        System.out.println("  --max-matches <n>      Events fetched per league, 0 for all (default 2)");
+        System.out.println("  --include-live         Fetch live events as well as prematch ones");
+        System.out.println("  --crawl                Full catalog: all sports, all leagues, every event");
+        System.out.println("  --target-eps <n>       Exit with status 2 when a pass writes fewer events per second");
+        System.out.println("  --shards <n>           Split the leagues between <n> worker processes on this machine");
+        System.out.println("  --shard-worker <i>     Run as shard <i> of a coordinator (set by the coordinator)");
+        System.out.println("  --coordinator-port <p> Loopback port of the coordinator (set by the coordinator)");
+        System.out.println("  --daemon               Keep running and re-poll leagues instead of a single pass");
+        System.out.println("  --poll-interval <spec> League poll interval in seconds, or <sport>=<seconds> (default 60)");
+        System.out.println("  --kickoff-refresh <spec> <hours>=<seconds>: refresh events at least <hours> from kickoff");
+        System.out.println("                         only every <seconds> in daemon mode (repeatable)");
+        System.out.println("  --sports-refresh <sec> Sports catalog refresh interval in daemon mode (default 600)");
+        System.out.println("  --poll-jitter <ratio>  Random spread applied to every poll delay (default 0.2)");
+        System.out.println("  --executor <mode>      Thread model: platform (default) or virtual");
+        System.out.println("  --cpu-threads <n>      Decoding pool size in virtual mode (default: CPU count)");
+        System.out.println("  --league-workers <n>   League listings fetched in parallel (default 4)");
+        System.out.println("  --event-workers <n>    Event details fetched in parallel (default 16)");
+        System.out.println("  --render-workers <n>   Matches rendered in parallel (default 2)");
+        System.out.println("  --queue-capacity <n>   Items waiting in front of each pipeline stage (default 64)");
+        System.out.println("  --no-compression       Don't ask for gzip/deflate compressed responses");
+        System.out.println("  --http1                Use HTTP/1.1 instead of multiplexing over HTTP/2");
+        System.out.println("  --connect-timeout <s>  Connection establishment timeout (default 10)");
+        System.out.println("  --keepalive <s>        Idle time before pooled connections are closed (default 300)");
+        System.out.println("  --warmup               Open the API connection before fetching starts");
+        System.out.println("  --fast-start           Warm up response decoding while the first request is in flight");
+        System.out.println("  --cds-training         Run a short offline pass for building a class data archive");
+        System.out.println("  --adaptive-limit       Adapt in-flight requests to observed latency and 429/5xx");
+        System.out.println("  --max-concurrency <n>  Upper bound of the adaptive limit (default 64)");
+        System.out.println("  --max-rps <n>          Ceiling on outbound requests per second");
+        System.out.println("  --coalesce             Share one in-flight request between identical concurrent calls");
+        System.out.println("  --request-timeout <ms> Give up on a request without a response after <ms>");
+        System.out.println("  --run-deadline <s>     Cancel every outstanding request <s> seconds into a single pass");
+        System.out.println("  --retries <n>          Retry timeouts, connection errors, 429 and 5xx up to <n> times");
+        System.out.println("  --retry-backoff <ms>   Base of the jittered exponential retry backoff (default 100)");
+        System.out.println("  --retry-budget <ratio> Retries and hedges allowed per request made (default 0.1)");
+        System.out.println("  --hedge                Send a second request when the first is slower than the p95");
+        System.out.println("  --cache                Cache responses in memory and revalidate them with ETags");
+        System.out.println("  --cache-ttl <spec>     Freshness per endpoint as <endpoint>=<seconds>; endpoints are");
+        System.out.println("                         sports (300), league-events (30), event-details (0)");
+        System.out.println("  --cache-size <n>       Maximum number of cached responses (default 10000)");
+        System.out.println("  --cache-max-mb <mb>    Maximum decoded size of cached responses (default 64)");
+        System.out.println("  --metrics-port <port>  Serve live metrics in Prometheus format at :<port>/metrics");
+        System.out.println("  --odds-store           Keep the latest state of every fetched event in memory");
+        System.out.println("  --diff                 Write only added, repriced and removed (NaN price) runners");
+        System.out.println("  --diff-snapshot <s>    Write each diffed event in full again every <s> seconds");
+        System.out.println("  --history-dir <dir>    Append every observed price to a memory-mapped log in <dir>");
+        System.out.println("  --history-segment-mb <mb> Size of one price history segment file (default 64)");
+        System.out.println("  --read-history <id>    Print the recorded prices of one event from --history-dir");
+        System.out.println("  --replay <source>      Serve responses offline from a fixtures directory or 'synthetic'");
+        System.out.println("  --replay-latency <ms>  Replayed response time as <median>[:<p99>] (default 50:400)");
+        System.out.println("  --replay-error-rate <r> Share of replayed requests failing with 503 (default 0)");
+        System.out.println("  --synthetic-leagues <n> Top leagues in the synthetic catalog (default 1000)");
+        System.out.println("  --synthetic-events <n> Events per synthetic league (default 20)");
+        System.out.println("  --synthetic-markets <n> Markets per synthetic event (default 30)");
         System.out.println("  --benchmark            Enable performance benchmarking");
         System.out.println("  --force-rebuild        Force rebuild the project");
         System.out.println("  --help                 Show this help message");
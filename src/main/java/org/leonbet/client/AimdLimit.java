@@ -0,0 +1,43 @@
+package org.leonbet.client;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit. Each successful sample
+ * grows the limit by roughly one per round trip; a throttled or failed request, or a
+ * latency well above the best one seen recently, shrinks it by the backoff ratio.
+ */
+public final class AimdLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // Lets the baseline drift up slowly so one lucky sample doesn't pin it forever
+    private static final double MIN_RTT_DECAY = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double minRttNanos = Double.MAX_VALUE;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized int get() {
+        return (int) limit;
+    }
+
+    public synchronized void onSample(long rttNanos, boolean overloaded, int inFlight) {
+        if (overloaded) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+
+        minRttNanos = rttNanos < minRttNanos ? rttNanos : minRttNanos + (rttNanos - minRttNanos) * MIN_RTT_DECAY;
+        if (rttNanos > minRttNanos * LATENCY_TOLERANCE) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlight * 2 >= limit) {
+            // Only grow when the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
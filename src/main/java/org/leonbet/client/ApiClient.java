@@ -1,10 +1,32 @@
 package org.leonbet.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import org.leonbet.model.Event;
+import org.leonbet.model.Sport;
+
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface ApiClient {
-    CompletableFuture<JsonNode> fetchSports();
-    CompletableFuture<JsonNode> fetchLeagueEvents(long leagueId);
-    CompletableFuture<JsonNode> fetchEventDetails(long eventId);
-} 
\ No newline at end of file
+    /**
+     * Fetches one resource. When validators are given and the resource is unchanged, the
+     * response is {@link ApiResponse#notModified() not modified} and carries no value.
+     * Decorators only need to implement this method.
+     */
+    <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators);
+
+    default <T> CompletableFuture<T> fetch(Endpoint<T> endpoint, long id) {
+        return exchange(endpoint, id, Validators.NONE).thenApply(ApiResponse::value);
+    }
+
+    default CompletableFuture<List<Sport>> fetchSports() {
+        return fetch(Endpoint.SPORTS, 0);
+    }
+
+    default CompletableFuture<List<Event>> fetchLeagueEvents(long leagueId) {
+        return fetch(Endpoint.LEAGUE_EVENTS, leagueId);
+    }
+
+    default CompletableFuture<Event> fetchEventDetails(long eventId) {
+        return fetch(Endpoint.EVENT_DETAILS, eventId);
+    }
+}
@@ -0,0 +1,22 @@
+package org.leonbet.client;
+
+// Non-successful HTTP status returned by the API
+public class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public ApiException(int statusCode, String url) {
+        super("HTTP " + statusCode + " from " + url);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // 429 and 5xx mean the server is overloaded or throttling us
+    public boolean isOverload() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
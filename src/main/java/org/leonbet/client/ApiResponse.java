@@ -0,0 +1,16 @@
+package org.leonbet.client;
+
+/**
+ * Decoded response of an {@link Endpoint}. A not-modified response has no value; the
+ * caller keeps using the one it revalidated. Wire bytes count the body as transferred
+ * (possibly compressed), body bytes count the decoded JSON.
+ */
+public record ApiResponse<T>(T value, Validators validators, boolean notModified, long wireBytes, long bodyBytes) {
+    public static <T> ApiResponse<T> of(T value, Validators validators, long wireBytes, long bodyBytes) {
+        return new ApiResponse<>(value, validators, false, wireBytes, bodyBytes);
+    }
+
+    public static <T> ApiResponse<T> unchanged(Validators validators) {
+        return new ApiResponse<>(null, validators, true, 0, 0);
+    }
+}
@@ -0,0 +1,122 @@
+package org.leonbet.client;
+
+import org.leonbet.util.BenchmarkUtils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * TTL cache in front of another client. Fresh entries are served without a request.
+ * Expired entries that carry an ETag or Last-Modified are revalidated, so an unchanged
+ * payload costs a 304 instead of a transfer and a parse. The cache is bounded both by
+ * entry count and by the decoded body size of its entries, evicting least recently used.
+ */
+public class CachingApiClient implements ApiClient {
+    private final ApiClient delegate;
+    private final Function<Endpoint<?>, Duration> ttls;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public CachingApiClient(ApiClient delegate, Function<Endpoint<?>, Duration> ttls, int maxEntries, long maxBytes) {
+        this.delegate = delegate;
+        this.ttls = ttls;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        // The caller runs its own revalidation, nothing to add
+        if (!validators.isEmpty()) {
+            return delegate.exchange(endpoint, id, validators);
+        }
+
+        CacheKey key = new CacheKey(endpoint, id);
+        CacheEntry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        if (cached != null && System.nanoTime() < cached.expiresAt) {
+            BenchmarkUtils.count(endpoint.metric("Cache Hit"));
+            return CompletableFuture.completedFuture(ApiResponse.of(value(cached), cached.validators, 0, 0));
+        }
+
+        if (cached == null || cached.validators.isEmpty()) {
+            BenchmarkUtils.count(endpoint.metric("Cache Miss"));
+            return delegate.exchange(endpoint, id, Validators.NONE)
+                    .thenApply(response -> store(key, response));
+        }
+
+        return delegate.exchange(endpoint, id, cached.validators)
+                .thenApply(response -> {
+                    if (!response.notModified()) {
+                        BenchmarkUtils.count(endpoint.metric("Cache Revalidate Changed"));
+                        return store(key, response);
+                    }
+                    BenchmarkUtils.count(endpoint.metric("Cache Revalidate Unchanged"));
+                    CacheEntry refreshed = new CacheEntry(cached.value, response.validators(),
+                            expiresAt(endpoint), cached.bytes);
+                    put(key, refreshed);
+                    return ApiResponse.of(value(cached), refreshed.validators, 0, 0);
+                });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private <T> ApiResponse<T> store(CacheKey key, ApiResponse<T> response) {
+        Duration ttl = ttls.apply(key.endpoint);
+        // Nothing to gain from an entry that is never fresh and can't be revalidated
+        if (!ttl.isZero() || !response.validators().isEmpty()) {
+            put(key, new CacheEntry(response.value(), response.validators(), expiresAt(key.endpoint),
+                    response.bodyBytes()));
+        }
+        return response;
+    }
+
+    private void put(CacheKey key, CacheEntry entry) {
+        synchronized (entries) {
+            // Storing it would evict everything else and still leave the cache over budget
+            if (entry.bytes > maxBytes) {
+                CacheEntry stale = entries.remove(key);
+                if (stale != null) totalBytes -= stale.bytes;
+                BenchmarkUtils.count("Cache Too Large");
+                return;
+            }
+
+            CacheEntry previous = entries.put(key, entry);
+            totalBytes += entry.bytes - (previous != null ? previous.bytes : 0);
+
+            Iterator<CacheEntry> eldest = entries.values().iterator();
+            while (eldest.hasNext() && (entries.size() > maxEntries || totalBytes > maxBytes)) {
+                CacheEntry evicted = eldest.next();
+                if (evicted == entry) break; // never evict what was just stored
+                totalBytes -= evicted.bytes;
+                eldest.remove();
+                BenchmarkUtils.count("Cache Evict");
+            }
+        }
+    }
+
+    private long expiresAt(Endpoint<?> endpoint) {
+        return System.nanoTime() + ttls.apply(endpoint).toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T value(CacheEntry entry) {
+        return (T) entry.value;
+    }
+
+    private record CacheKey(Endpoint<?> endpoint, long id) {}
+
+    private record CacheEntry(Object value, Validators validators, long expiresAt, long bytes) {}
+}
@@ -0,0 +1,68 @@
+package org.leonbet.client;
+
+import org.leonbet.util.BenchmarkUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight requests: while a request for an endpoint and id is in flight, identical
+ * requests share its response instead of going out again. Lookups never lock; only the
+ * map bin of the key is locked while a request is registered or removed.
+ */
+public class CoalescingApiClient implements ApiClient {
+    private final ApiClient delegate;
+    private final ConcurrentMap<RequestKey, CompletableFuture<ApiResponse<?>>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingApiClient(ApiClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        RequestKey key = new RequestKey(endpoint, id, validators);
+        CompletableFuture<ApiResponse<?>> shared = inFlight.get(key);
+        if (shared == null) {
+            CompletableFuture<ApiResponse<?>> created = new CompletableFuture<>();
+            shared = inFlight.putIfAbsent(key, created);
+            if (shared == null) {
+                send(key, endpoint, id, validators, created);
+                shared = created;
+            } else {
+                BenchmarkUtils.count(endpoint.metric("Coalesced"));
+            }
+        } else {
+            BenchmarkUtils.count(endpoint.metric("Coalesced"));
+        }
+
+        // Each caller gets its own copy, so cancelling one doesn't cancel the others
+        return (CompletableFuture<ApiResponse<T>>) (CompletableFuture<?>) shared.copy();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private <T> void send(RequestKey key, Endpoint<T> endpoint, long id, Validators validators,
+                          CompletableFuture<ApiResponse<?>> shared) {
+        CompletableFuture<ApiResponse<T>> response;
+        try {
+            response = delegate.exchange(endpoint, id, validators);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((value, t) -> {
+            inFlight.remove(key, shared);
+            if (t != null) {
+                shared.completeExceptionally(t);
+            } else {
+                shared.complete(value);
+            }
+        });
+    }
+
+    private record RequestKey(Endpoint<?> endpoint, long id, Validators validators) {}
+}
@@ -0,0 +1,12 @@
+package org.leonbet.client;
+
+public enum DecodeMode {
+    // Buffers the whole body into a String, then builds the full JsonNode tree
+    TREE,
+    // Parses straight from the response InputStream, skipping subtrees nobody reads
+    STREAMING;
+
+    public static DecodeMode fromString(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
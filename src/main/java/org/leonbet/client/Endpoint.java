@@ -0,0 +1,118 @@
+package org.leonbet.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.leonbet.model.Event;
+import org.leonbet.model.Sport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Describes one API resource: how to build its URL and what the response binds to.
+ * The JSON pointer selects the part of the body that holds the value.
+ */
+public final class Endpoint<T> {
+    public static final Endpoint<List<Sport>> SPORTS = new Endpoint<>(
+            "sports", "Sports", new TypeReference<>() {}, "", id -> ApiUrlBuilder.sports(),
+            "[{\"id\":1,\"name\":\"Sport\",\"regions\":[{\"id\":1,\"name\":\"Region\","
+                    + "\"leagues\":[{\"id\":1,\"name\":\"League\",\"top\":true}]}]}]");
+    public static final Endpoint<List<Event>> LEAGUE_EVENTS = new Endpoint<>(
+            "league-events", "League Events", new TypeReference<>() {}, "/events", ApiUrlBuilder::leagueEvents,
+            "{\"totalCount\":1,\"events\":[" + sampleEvent() + "]}");
+    public static final Endpoint<Event> EVENT_DETAILS = new Endpoint<>(
+            "event-details", "Event Details", new TypeReference<>() {}, "", ApiUrlBuilder::eventDetails,
+            sampleEvent());
+
+    private static final List<Endpoint<?>> VALUES = List.of(SPORTS, LEAGUE_EVENTS, EVENT_DETAILS);
+
+    private final String key;
+    private final String name;
+    private final TypeReference<T> type;
+    private final String pointer;
+    private final LongFunction<ApiUrlBuilder> urlBuilder;
+    private final byte[] sample;
+    private final Map<String, String> metricNames = new ConcurrentHashMap<>();
+
+    private Endpoint(String key, String name, TypeReference<T> type, String pointer,
+                     LongFunction<ApiUrlBuilder> urlBuilder, String sample) {
+        this.key = key;
+        this.name = name;
+        this.type = type;
+        this.pointer = pointer;
+        this.urlBuilder = urlBuilder;
+        this.sample = sample.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sampleEvent() {
+        return "{\"id\":1,\"name\":\"Home - Away\",\"kickoff\":0,\"betline\":\"prematch\",\"markets\":"
+                + "[{\"id\":1,\"name\":\"Winner\",\"runners\":[{\"id\":1,\"name\":\"Home\",\"price\":1.5}]}]}";
+    }
+
+    public static List<Endpoint<?>> values() {
+        return VALUES;
+    }
+
+    public static Endpoint<?> fromKey(String key) {
+        for (Endpoint<?> endpoint : VALUES) {
+            if (endpoint.key.equals(key)) return endpoint;
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + key);
+    }
+
+    // Short machine-friendly name, used in command line options
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TypeReference<T> getType() {
+        return type;
+    }
+
+    public String getPointer() {
+        return pointer;
+    }
+
+    // Streaming reader bound to this endpoint's type, positioned at its JSON pointer
+    public ObjectReader reader(ObjectMapper mapper) {
+        ObjectReader reader = mapper.readerFor(type);
+        return pointer.isEmpty() ? reader : reader.at(pointer);
+    }
+
+    // Binds a small sample body of every endpoint, so the decoding classes are loaded and linked
+    // before the first real response arrives. Readers of the same mapper share what it builds.
+    public static void warmUp(ObjectMapper mapper) {
+        for (Endpoint<?> endpoint : VALUES) {
+            try {
+                endpoint.reader(mapper).readValue(endpoint.sample);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Invalid sample of " + endpoint.name, e);
+            }
+        }
+    }
+
+    // "<prefix> <name>", built once per prefix so per-request metrics don't concatenate strings
+    public String metric(String prefix) {
+        String metric = metricNames.get(prefix);
+        return metric != null ? metric : metricNames.computeIfAbsent(prefix, p -> p + " " + name);
+    }
+
+    public String url(long id) {
+        return urlBuilder.apply(id).build();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
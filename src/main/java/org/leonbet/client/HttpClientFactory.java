@@ -0,0 +1,31 @@
+package org.leonbet.client;
+
+import org.leonbet.config.AppConfig;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+
+public final class HttpClientFactory {
+    private HttpClientFactory() {} // Prevent instantiation
+
+    // The executor delivers response bytes, so it must never run work that blocks reading them
+    public static HttpClient create(Executor executor) {
+        // Read once when the JDK client implementation loads, so set before the first client.
+        // Keeping idle connections longer than the poll interval saves a TLS handshake per poll.
+        setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(AppConfig.getKeepAliveSeconds()));
+        setIfAbsent("jdk.httpclient.keepalive.timeout.h2", String.valueOf(AppConfig.getKeepAliveSeconds()));
+
+        // HTTP/2 multiplexes every request to the API host as a stream over one connection
+        return HttpClient.newBuilder()
+                .executor(executor)
+                .version(AppConfig.getHttpVersion())
+                .connectTimeout(AppConfig.getConnectTimeout())
+                .build();
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+}
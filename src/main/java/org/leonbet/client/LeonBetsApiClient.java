@@ -1,58 +1,224 @@
 package org.leonbet.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.leonbet.config.AppConfig;
+import org.leonbet.trace.RequestSpan;
+import org.leonbet.util.BenchmarkUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 public class LeonBetsApiClient implements ApiClient {
+    private static final int NOT_MODIFIED = 304;
+    private static final int DECOMPRESS_BUFFER_SIZE = 16 * 1024;
+
     private final HttpClient httpClient;
     private final ObjectMapper mapper;
     private final ExecutorService executor;
+    private final Map<Endpoint<?>, ObjectReader> readers = new HashMap<>();
+    private final LongAdder inFlight = new LongAdder();
 
     public LeonBetsApiClient(HttpClient httpClient, ObjectMapper mapper, ExecutorService executor) {
         this.httpClient = httpClient;
         this.mapper = mapper;
         this.executor = executor;
+        for (Endpoint<?> endpoint : Endpoint.values()) {
+            readers.put(endpoint, endpoint.reader(mapper));
+        }
+        BenchmarkUtils.registerGauge("API In Flight", inFlight::sum);
     }
 
     @Override
-    public CompletableFuture<JsonNode> fetchSports() {
-        return sendRequest(ApiUrlBuilder.sports().build());
-    }
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(endpoint.url(id)))
+                .header("User-Agent", "Mozilla/5.0 (compatible; LeonScraper/1.0)");
+        if (validators.etag() != null) {
+            builder.header("If-None-Match", validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            builder.header("If-Modified-Since", validators.lastModified());
+        }
+        boolean streaming = AppConfig.getDecodeMode() == DecodeMode.STREAMING;
+        // The buffered path reads the body as a String, so it can only take identity encoding
+        if (streaming && AppConfig.isCompression()) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
+        HttpRequest request = builder.build();
 
-    @Override
-    public CompletableFuture<JsonNode> fetchLeagueEvents(long leagueId) {
-        return sendRequest(ApiUrlBuilder.leagueEvents(leagueId).build());
-    }
+        long startTime = System.nanoTime();
+        inFlight.increment();
+        RequestSpan span = RequestSpan.start(endpoint.getName(), id);
+        CompletableFuture<ApiResponse<T>> response = streaming
+                ? sendStreaming(request, endpoint, validators, span)
+                : sendBuffered(request, endpoint, validators, span);
 
-    @Override
-    public CompletableFuture<JsonNode> fetchEventDetails(long eventId) {
-        return sendRequest(ApiUrlBuilder.eventDetails(eventId).build());
+        return abortOnFailure(response.whenComplete((value, t) -> {
+            inFlight.decrement();
+            BenchmarkUtils.record(endpoint.metric("Fetch"), startTime);
+            if (t != null) {
+                BenchmarkUtils.count(endpoint.metric("Errors"));
+            } else {
+                BenchmarkUtils.count(endpoint.metric("Bytes On Wire"), value.wireBytes());
+                BenchmarkUtils.count(endpoint.metric("Bytes Decoded"), value.bodyBytes());
+            }
+        }), response);
     }
 
-    private CompletableFuture<JsonNode> sendRequest(String url) {
+    // Opens the connection (DNS, TCP, TLS, HTTP/2 negotiation) before the fan-out, so the
+    // first burst of requests multiplexes over it instead of racing to open their own
+    public void warmUp() {
+        long startTime = System.nanoTime();
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(URI.create(AppConfig.BASE_API_URL + "/"))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
                 .header("User-Agent", "Mozilla/5.0 (compatible; LeonScraper/1.0)")
                 .build();
+        try {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).join();
+        } catch (CompletionException e) {
+            System.err.println("Connection warm-up failed: " + e.getMessage());
+        } finally {
+            BenchmarkUtils.record("Connection Warm-up", startTime);
+        }
+    }
+
+    // Single hop: the body is bound while it arrives, unknown fields are skipped by the parser
+    private <T> CompletableFuture<ApiResponse<T>> sendStreaming(HttpRequest request, Endpoint<T> endpoint,
+                                                                Validators validators, RequestSpan span) {
+        ObjectReader reader = readers.get(endpoint);
+        CompletableFuture<HttpResponse<InputStream>> sent =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        return abortOnFailure(responded(sent, span).thenApplyAsync(response -> {
+                    span.decodeStarted();
+                    if (response.statusCode() == NOT_MODIFIED) {
+                        closeQuietly(response.body());
+                        return ApiResponse.<T>unchanged(mergeValidators(response, validators));
+                    }
+                    if (!isSuccess(response)) {
+                        closeQuietly(response.body());
+                        throw new ApiException(response.statusCode(), request.uri().toString());
+                    }
+
+                    long decodeStart = System.nanoTime();
+                    long allocStart = BenchmarkUtils.threadAllocatedBytes();
+                    CountingInputStream wire = new CountingInputStream(response.body());
+                    try (CountingInputStream body = new CountingInputStream(decompress(wire, response))) {
+                        T value = reader.readValue(body);
+                        span.decoded(wire.getCount(), body.getCount());
+                        return ApiResponse.of(value, Validators.from(response.headers()),
+                                wire.getCount(), body.getCount());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        BenchmarkUtils.recordAllocation(endpoint.metric("Decode"), decodeStart, allocStart);
+                    }
+                }, executor), sent);
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApplyAsync(HttpResponse::body, executor)
-                .thenApplyAsync(body -> {
+    // Legacy path kept for comparison: String body, full JsonNode tree, then binding
+    private <T> CompletableFuture<ApiResponse<T>> sendBuffered(HttpRequest request, Endpoint<T> endpoint,
+                                                               Validators validators, RequestSpan span) {
+        ObjectReader reader = readers.get(endpoint);
+        CompletableFuture<HttpResponse<String>> sent =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        return abortOnFailure(responded(sent, span).thenApplyAsync(response -> {
+                    span.decodeStarted();
+                    if (response.statusCode() == NOT_MODIFIED) {
+                        return ApiResponse.<T>unchanged(mergeValidators(response, validators));
+                    }
+                    if (!isSuccess(response)) {
+                        throw new ApiException(response.statusCode(), request.uri().toString());
+                    }
+
+                    long decodeStart = System.nanoTime();
+                    long allocStart = BenchmarkUtils.threadAllocatedBytes();
                     try {
-                        return mapper.readTree(body);
+                        String body = response.body();
+                        // The reader applies the endpoint's JSON pointer to the tree
+                        T value = reader.readValue(mapper.readTree(body));
+                        // Only identity encoding is accepted here, so the wire carried the decoded bytes
+                        long bytes = utf8Length(body);
+                        span.decoded(bytes, bytes);
+                        return ApiResponse.of(value, Validators.from(response.headers()), bytes, bytes);
                     } catch (IOException e) {
                         throw new CompletionException(e);
+                    } finally {
+                        BenchmarkUtils.recordAllocation(endpoint.metric("Decode"), decodeStart, allocStart);
                     }
-                }, executor);
+                }, executor), sent);
+    }
+
+    // Ends the exchange phase of the span before anything depending on the response runs
+    private static <R> CompletableFuture<HttpResponse<R>> responded(CompletableFuture<HttpResponse<R>> sent,
+                                                                    RequestSpan span) {
+        return sent.whenComplete((response, t) -> span.responded(response != null ? response.statusCode() : 0));
+    }
+
+    // Dependent stages don't propagate cancellation, so a caller giving up on the result
+    // has to abort the exchange (and the HTTP/2 stream) explicitly
+    private static <T> CompletableFuture<T> abortOnFailure(CompletableFuture<T> result, CompletableFuture<?> exchange) {
+        result.whenComplete((value, t) -> {
+            if (t != null) exchange.cancel(true);
+        });
+        return result;
+    }
+
+    // Inflates while the JSON parser reads, the compressed body is never buffered whole
+    private static InputStream decompress(InputStream body, HttpResponse<?> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        return switch (encoding.trim().toLowerCase()) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body, DECOMPRESS_BUFFER_SIZE);
+            case "deflate" -> new InflaterInputStream(body, new Inflater(), DECOMPRESS_BUFFER_SIZE);
+            default -> body;
+        };
+    }
+
+    // UTF-8 size of the body as it was received, counted without encoding a copy
+    private static long utf8Length(String text) {
+        long bytes = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                // A surrogate pair is 4 bytes in all, 2 from each half
+                bytes += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    // A 304 may omit validators that did not change, so fall back to the ones that were sent
+    private static Validators mergeValidators(HttpResponse<?> response, Validators sent) {
+        Validators received = Validators.from(response.headers());
+        return new Validators(received.etag() != null ? received.etag() : sent.etag(),
+                received.lastModified() != null ? received.lastModified() : sent.lastModified());
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // Nothing useful to do, the exchange is already complete
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package org.leonbet.client;
+
+import org.leonbet.trace.Trace;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.net.http.HttpTimeoutException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps outbound requests with an adaptive concurrency limit and an optional
+ * requests-per-second ceiling. Requests over the limit wait in a queue without holding
+ * a thread and are started as earlier ones complete. Starting them is trampolined: one
+ * thread at a time runs the drain loop, and a completion that arrives on its stack only asks
+ * for another pass, so an error burst cannot nest drains as deep as the queue is long.
+ */
+public class LimitingApiClient implements ApiClient {
+    private final ApiClient delegate;
+    private final AimdLimit limit;
+    private final TokenBucket rateLimit;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    // limit may be null for no concurrency cap, rateLimit for no requests-per-second ceiling
+    public LimitingApiClient(ApiClient delegate, AimdLimit limit, TokenBucket rateLimit) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.rateLimit = rateLimit;
+        if (limit != null) {
+            BenchmarkUtils.registerGauge("Limiter Concurrency Limit", limit::get);
+        }
+        BenchmarkUtils.registerGauge("Limiter In Flight", inFlight::get);
+        BenchmarkUtils.registerGauge("Limiter Queue Depth", queued::get);
+        BenchmarkUtils.registerGauge("Limiter Peak Queue Depth", peakQueued::get);
+    }
+
+    @Override
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        CompletableFuture<ApiResponse<T>> result = new CompletableFuture<>();
+        // Queued requests start on whichever thread frees a slot, under the caller's trace
+        waiting.add(() -> throttle(Trace.wrap(() -> send(endpoint, id, validators, result))));
+        peakQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        drain();
+        return result;
+    }
+
+    public int getLimit() {
+        return limit != null ? limit.get() : Integer.MAX_VALUE;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    // Whoever finds no drain running owns the loop; everyone else only requests another pass
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) return;
+
+        int requests = 1;
+        do {
+            startQueued();
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    // Starts queued requests while there is room under the limit
+    private void startQueued() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) return;
+            if (!inFlight.compareAndSet(current, current + 1)) continue;
+
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                // Another thread may have enqueued between poll and release
+                if (waiting.isEmpty()) return;
+                continue;
+            }
+            queued.decrementAndGet();
+            next.run();
+        }
+    }
+
+    private void throttle(Runnable request) {
+        long delay = rateLimit != null ? rateLimit.reserve() : 0;
+        if (delay == 0) {
+            request.run();
+        } else {
+            BenchmarkUtils.count("Limiter Rate Delayed");
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(request);
+        }
+    }
+
+    private <T> void send(Endpoint<T> endpoint, long id, Validators validators,
+                          CompletableFuture<ApiResponse<T>> result) {
+        // Cancelled or timed out while it was queued
+        if (result.isDone()) {
+            inFlight.decrementAndGet();
+            drain();
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        CompletableFuture<ApiResponse<T>> response;
+        try {
+            response = delegate.exchange(endpoint, id, validators);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ApiResponse<T>> sent = response;
+        result.whenComplete((value, t) -> {
+            if (t != null) sent.cancel(true);
+        });
+
+        response.whenComplete((value, t) -> {
+            boolean overloaded = isOverload(t);
+            if (overloaded) {
+                BenchmarkUtils.count("Limiter Overload Responses");
+            }
+            if (limit != null) {
+                limit.onSample(System.nanoTime() - startTime, overloaded, inFlight.get());
+            }
+            inFlight.decrementAndGet();
+            drain();
+
+            if (t != null) {
+                result.completeExceptionally(t);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private static boolean isOverload(Throwable t) {
+        if (t == null) return false;
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        return cause instanceof ApiException api ? api.isOverload() : cause instanceof HttpTimeoutException;
+    }
+}
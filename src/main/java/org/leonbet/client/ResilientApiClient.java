@@ -0,0 +1,232 @@
+package org.leonbet.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.leonbet.trace.Trace;
+import org.leonbet.util.BenchmarkUtils;
+import org.leonbet.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounds the time a call can take. Each attempt has a deadline; transient failures are
+ * retried with jittered exponential backoff while the retry budget allows; an attempt
+ * still running after the observed p95 of its endpoint is hedged with a second request
+ * and the first response wins. When the run deadline passes, every outstanding call fails
+ * and its requests are cancelled.
+ */
+public class ResilientApiClient implements ApiClient {
+    private static final double HEDGE_PERCENTILE = 95;
+    // Samples needed before the percentile is trusted, and between recomputing it
+    private static final int HEDGE_MIN_SAMPLES = 32;
+    private static final int HEDGE_REFRESH_SAMPLES = 64;
+    private static final int MAX_BACKOFF_DOUBLINGS = 6;
+
+    private final ApiClient delegate;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final RetryBudget budget;
+    private final boolean hedge;
+    private final long runDeadline;
+    private final Map<Endpoint<?>, Latency> latencies = new HashMap<>();
+    private final Set<CompletableFuture<?>> outstanding = ConcurrentHashMap.newKeySet();
+    private volatile boolean expired;
+
+    // requestTimeout and runDeadline may be null for no limit; the run deadline starts now
+    public ResilientApiClient(ApiClient delegate, Duration requestTimeout, int maxRetries, Duration retryBackoff,
+                              RetryBudget budget, boolean hedge, Duration runDeadline) {
+        this.delegate = delegate;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.budget = budget;
+        this.hedge = hedge;
+        for (Endpoint<?> endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new Latency());
+        }
+        if (runDeadline != null) {
+            this.runDeadline = System.nanoTime() + runDeadline.toNanos();
+            CompletableFuture.delayedExecutor(runDeadline.toNanos(), TimeUnit.NANOSECONDS).execute(this::expire);
+        } else {
+            this.runDeadline = Long.MAX_VALUE;
+        }
+        BenchmarkUtils.registerGauge("Retry Budget Balance", () -> (long) budget.getBalance());
+    }
+
+    @Override
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        CompletableFuture<ApiResponse<T>> result = new CompletableFuture<>();
+        if (expired) {
+            result.completeExceptionally(new TimeoutException("Run deadline exceeded"));
+            return result;
+        }
+
+        budget.deposit();
+        outstanding.add(result);
+        Call<T> call = new Call<>(endpoint, id, validators, result);
+        result.whenComplete((value, t) -> {
+            outstanding.remove(result);
+            call.cancelAttempts();
+        });
+        // The deadline may have passed between the check and registering the call
+        if (expired) {
+            result.completeExceptionally(new TimeoutException("Run deadline exceeded"));
+        } else {
+            call.attempt(false);
+        }
+        return result;
+    }
+
+    private void expire() {
+        expired = true;
+        TimeoutException deadline = new TimeoutException("Run deadline exceeded");
+        for (CompletableFuture<?> call : outstanding) {
+            if (call.completeExceptionally(deadline)) {
+                BenchmarkUtils.count("Run Deadline Cancelled");
+            }
+        }
+    }
+
+    // Full jitter: uniform between zero and the exponential bound
+    private long backoffNanos(int retry) {
+        long bound = retryBackoff.toNanos() << Math.min(retry, MAX_BACKOFF_DOUBLINGS);
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        if (cause instanceof ApiException api) return api.isOverload();
+        // A malformed body is not going to parse on the second try
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    // One logical call: its attempts, retried or hedged, race to complete the result
+    private final class Call<T> {
+        private final Endpoint<T> endpoint;
+        private final long id;
+        private final Validators validators;
+        private final CompletableFuture<ApiResponse<T>> result;
+        private final Set<CompletableFuture<ApiResponse<T>>> attempts = ConcurrentHashMap.newKeySet();
+        // Retries and hedges start on timer threads
+        private final long traceId = Trace.current();
+        private int retries;
+
+        private Call(Endpoint<T> endpoint, long id, Validators validators, CompletableFuture<ApiResponse<T>> result) {
+            this.endpoint = endpoint;
+            this.id = id;
+            this.validators = validators;
+            this.result = result;
+        }
+
+        private void attempt(boolean hedged) {
+            if (result.isDone()) return;
+
+            long startTime = System.nanoTime();
+            CompletableFuture<ApiResponse<T>> attempt;
+            long previousTrace = Trace.set(traceId);
+            try {
+                attempt = delegate.exchange(endpoint, id, validators);
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            } finally {
+                Trace.set(previousTrace);
+            }
+            attempts.add(attempt);
+            // Cancelled calls must not leave a late attempt behind
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+
+            CompletableFuture<ApiResponse<T>> started = attempt;
+            if (requestTimeout != null) {
+                CompletableFuture.delayedExecutor(requestTimeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                    if (started.completeExceptionally(new HttpTimeoutException(
+                            "No response from " + endpoint + " " + id + " within " + requestTimeout.toMillis() + " ms"))) {
+                        BenchmarkUtils.count(endpoint.metric("Timeouts"));
+                    }
+                });
+            }
+            long hedgeDelay = hedge && !hedged ? latencies.get(endpoint).hedgeDelayNanos : 0;
+            if (hedgeDelay > 0) {
+                CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(() -> {
+                    if (!started.isDone() && !result.isDone() && budget.tryWithdraw()) {
+                        BenchmarkUtils.count(endpoint.metric("Hedges"));
+                        attempt(true);
+                    }
+                });
+            }
+            started.whenComplete((value, t) -> onComplete(started, value, t, startTime, hedged));
+        }
+
+        private void onComplete(CompletableFuture<ApiResponse<T>> attempt, ApiResponse<T> value, Throwable t,
+                                long startTime, boolean hedged) {
+            if (t == null) {
+                attempts.remove(attempt);
+                latencies.get(endpoint).record(System.nanoTime() - startTime);
+                if (result.complete(value) && hedged) {
+                    BenchmarkUtils.count(endpoint.metric("Hedge Wins"));
+                }
+                return;
+            }
+            if (!wasLastAttempt(attempt)) return;
+
+            int retry = nextRetry(t);
+            if (retry >= 0) {
+                BenchmarkUtils.count(endpoint.metric("Retries"));
+                CompletableFuture.delayedExecutor(backoffNanos(retry), TimeUnit.NANOSECONDS)
+                        .execute(() -> attempt(false));
+            } else {
+                result.completeExceptionally(t);
+            }
+        }
+
+        // False while a hedge of the failed attempt is still running and may yet succeed
+        private synchronized boolean wasLastAttempt(CompletableFuture<ApiResponse<T>> attempt) {
+            attempts.remove(attempt);
+            return attempts.isEmpty() && !result.isDone();
+        }
+
+        // Number of the retry to schedule, or -1 when the failure is final
+        private synchronized int nextRetry(Throwable t) {
+            if (retries >= maxRetries || !isRetryable(t)) return -1;
+            // Don't start a retry that can only be cut off by the run deadline
+            if (System.nanoTime() + retryBackoff.toNanos() >= runDeadline) return -1;
+            if (!budget.tryWithdraw()) {
+                BenchmarkUtils.count("Retry Budget Exhausted");
+                return -1;
+            }
+            return retries++;
+        }
+
+        private void cancelAttempts() {
+            for (CompletableFuture<ApiResponse<T>> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    // Successful response times of one endpoint and the hedge delay derived from them
+    private static final class Latency {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private volatile long hedgeDelayNanos;
+
+        private void record(long nanos) {
+            histogram.record(nanos, null);
+            long count = histogram.getCount();
+            if (count >= HEDGE_MIN_SAMPLES && (hedgeDelayNanos == 0 || count % HEDGE_REFRESH_SAMPLES == 0)) {
+                hedgeDelayNanos = histogram.getPercentileNanos(HEDGE_PERCENTILE);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.leonbet.client;
+
+/**
+ * Caps retries and hedges at a share of the calls made. Every call deposits the ratio,
+ * every extra request withdraws one token, and the balance never exceeds the reserve, so
+ * a failing upstream gets at most a short burst followed by ratio extra load instead of
+ * a retry storm.
+ */
+public final class RetryBudget {
+    private final double ratio;
+    private final double reserve;
+    private double balance;
+
+    public RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.reserve = Math.max(1, reserve);
+        this.balance = this.reserve;
+    }
+
+    public synchronized void deposit() {
+        balance = Math.min(reserve, balance + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (balance < 1) return false;
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        return balance;
+    }
+}
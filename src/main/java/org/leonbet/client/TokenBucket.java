@@ -0,0 +1,29 @@
+package org.leonbet.client;
+
+/**
+ * Requests-per-second ceiling. Callers reserve a token and are told how long to wait
+ * for it; tokens may go into debt so waiting callers are spaced evenly at the rate.
+ */
+public final class TokenBucket {
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Takes a token and returns the number of nanoseconds to wait before using it
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+    }
+}
@@ -0,0 +1,17 @@
+package org.leonbet.client;
+
+import java.net.http.HttpHeaders;
+
+// HTTP cache validators of a response, sent back as If-None-Match / If-Modified-Since
+public record Validators(String etag, String lastModified) {
+    public static final Validators NONE = new Validators(null, null);
+
+    public static Validators from(HttpHeaders headers) {
+        return new Validators(headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null));
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+}
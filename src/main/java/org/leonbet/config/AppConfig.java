@@ -1,30 +1,90 @@
 package org.leonbet.config;
 
+import org.leonbet.client.DecodeMode;
+import org.leonbet.output.OutputFormat;
+import org.leonbet.replay.LatencyModel;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public final class AppConfig {
-    public static final List<String> TARGET_SPORTS = List.of("Football", "Tennis", "Ice Hockey", "Basketball");
-    public static final int MAX_MATCHES = 2;
+    public static final List<String> DEFAULT_TARGET_SPORTS = List.of("Football", "Tennis", "Ice Hockey", "Basketball");
     public static final int MAX_THREADS = 3;
     public static final String BASE_API_URL = "https://leonbets.com/api-2";
     
     private static boolean PRINT_TO_FILE = false;
     private static String reportsDir = "reports";
     private static ZoneId timeZone = ZoneId.of("UTC");
-    private static DateTimeFormatter UTC_FORMATTER;
-    
-    static {
-        updateDateFormatter();
-    }
-    
-    private static void updateDateFormatter() {
-        UTC_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z")
-                .withZone(timeZone);
-    }
-    
+    // Built on first use, pattern compilation is a startup cost runs without dates don't need
+    private static volatile DateTimeFormatter UTC_FORMATTER;
+    private static DecodeMode decodeMode = DecodeMode.STREAMING;
+    private static OutputFormat outputFormat = OutputFormat.TEXT;
+    private static boolean daemon = false;
+    private static List<String> targetSports = DEFAULT_TARGET_SPORTS;
+    private static boolean topLeaguesOnly = true;
+    private static int maxMatches = 2;
+    private static boolean includeLive = false;
+    private static double targetEventsPerSecond = 0;
+    private static int shards = 0;
+    private static int shardIndex = -1;
+    private static int coordinatorPort = 0;
+    private static Duration sportsRefreshInterval = Duration.ofMinutes(10);
+    private static Duration defaultPollInterval = Duration.ofSeconds(60);
+    private static final Map<String, Duration> sportPollIntervals = new ConcurrentHashMap<>();
+    private static double pollJitter = 0.2;
+    private static final NavigableMap<Duration, Duration> kickoffRefreshIntervals = new ConcurrentSkipListMap<>();
+    private static ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private static int cpuThreads = Runtime.getRuntime().availableProcessors();
+    private static boolean adaptiveLimit = false;
+    private static int maxConcurrency = 64;
+    private static double maxRequestsPerSecond = 0;
+    private static boolean compression = true;
+    private static HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+    private static Duration connectTimeout = Duration.ofSeconds(10);
+    private static long keepAliveSeconds = 300;
+    private static boolean warmUp = false;
+    private static boolean fastStart = false;
+    private static boolean coalesceRequests = false;
+    private static Duration requestTimeout;
+    private static Duration runDeadline;
+    private static int maxRetries = 0;
+    private static Duration retryBackoff = Duration.ofMillis(100);
+    private static double retryBudget = 0.1;
+    private static boolean hedgeRequests = false;
+    private static boolean cacheEnabled = false;
+    private static int cacheMaxEntries = 10_000;
+    private static long cacheMaxBytes = 64L * 1024 * 1024;
+    private static final Map<String, Duration> cacheTtls = new ConcurrentHashMap<>(Map.of(
+            "sports", Duration.ofMinutes(5),
+            "league-events", Duration.ofSeconds(30),
+            "event-details", Duration.ZERO
+    ));
+    private static boolean oddsStore = false;
+    private static boolean diffOutput = false;
+    private static Duration diffSnapshotInterval = Duration.ZERO;
+    private static int leagueParallelism = 4;
+    private static int eventParallelism = 16;
+    private static int renderParallelism = 2;
+    private static int pipelineQueueCapacity = 64;
+    private static int metricsPort = 0;
+    private static String historyDir;
+    private static long historySegmentBytes = 64L * 1024 * 1024;
+    private static String replaySource;
+    private static LatencyModel replayLatency = new LatencyModel(50, 400);
+    private static double replayErrorRate = 0;
+    private static int syntheticLeagues = 1_000;
+    private static int syntheticEvents = 20;
+    private static int syntheticMarkets = 30;
+
     public static boolean isPrintToFile() {
         return PRINT_TO_FILE;
     }
@@ -43,11 +103,494 @@ public final class AppConfig {
     
     public static void setTimeZone(String zoneId) {
         timeZone = ZoneId.of(zoneId);
-        updateDateFormatter();
+        UTC_FORMATTER = null;
     }
     
     public static DateTimeFormatter getDateFormatter() {
-        return UTC_FORMATTER;
+        DateTimeFormatter formatter = UTC_FORMATTER;
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(timeZone);
+            UTC_FORMATTER = formatter;
+        }
+        return formatter;
+    }
+
+    public static OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    public static void setOutputFormat(OutputFormat format) {
+        outputFormat = format;
+    }
+
+    public static DecodeMode getDecodeMode() {
+        return decodeMode;
+    }
+
+    public static void setDecodeMode(DecodeMode mode) {
+        decodeMode = mode;
+    }
+
+    // An empty list selects every sport in the catalog
+    public static List<String> getTargetSports() {
+        return targetSports;
+    }
+
+    public static boolean isTargetSport(String sportName) {
+        return targetSports.isEmpty() || targetSports.contains(sportName);
+    }
+
+    // Accepts a comma-separated list of sport names, or "all"
+    public static void setTargetSports(String spec) {
+        targetSports = spec.trim().equalsIgnoreCase("all")
+                ? List.of()
+                : Arrays.stream(spec.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+    }
+
+    public static boolean isTopLeaguesOnly() {
+        return topLeaguesOnly;
+    }
+
+    public static void setTopLeaguesOnly(boolean value) {
+        topLeaguesOnly = value;
+    }
+
+    // Events fetched per league; 0 for all of them
+    public static int getMaxMatches() {
+        return maxMatches;
+    }
+
+    public static void setMaxMatches(int value) {
+        maxMatches = value;
+    }
+
+    public static boolean isIncludeLive() {
+        return includeLive;
+    }
+
+    public static void setIncludeLive(boolean value) {
+        includeLive = value;
+    }
+
+    // Every sport, league and event of the catalog
+    public static void setFullCrawl() {
+        targetSports = List.of();
+        topLeaguesOnly = false;
+        maxMatches = 0;
+        includeLive = true;
+    }
+
+    public static double getTargetEventsPerSecond() {
+        return targetEventsPerSecond;
+    }
+
+    public static void setTargetEventsPerSecond(double value) {
+        targetEventsPerSecond = value;
+    }
+
+    // Worker processes to split the leagues between; 0 for a single process
+    public static int getShards() {
+        return shards;
+    }
+
+    public static void setShards(int value) {
+        shards = value;
+    }
+
+    // Index of this worker process, -1 when not started by a coordinator
+    public static int getShardIndex() {
+        return shardIndex;
+    }
+
+    public static void setShardIndex(int value) {
+        shardIndex = value;
+    }
+
+    public static int getCoordinatorPort() {
+        return coordinatorPort;
+    }
+
+    public static void setCoordinatorPort(int port) {
+        coordinatorPort = port;
+    }
+
+    public static boolean isDaemon() {
+        return daemon;
+    }
+
+    public static void setDaemon(boolean value) {
+        daemon = value;
+    }
+
+    public static Duration getSportsRefreshInterval() {
+        return sportsRefreshInterval;
+    }
+
+    public static void setSportsRefreshInterval(Duration interval) {
+        sportsRefreshInterval = interval;
+    }
+
+    public static Duration getPollInterval(String sportName) {
+        return sportPollIntervals.getOrDefault(sportName, defaultPollInterval);
+    }
+
+    // Accepts "<seconds>" for the default interval or "<sport>=<seconds>" for a single sport
+    public static void setPollInterval(String spec) {
+        int separator = spec.lastIndexOf('=');
+        if (separator < 0) {
+            defaultPollInterval = Duration.ofSeconds(Long.parseLong(spec.trim()));
+        } else {
+            sportPollIntervals.put(spec.substring(0, separator).trim(),
+                    Duration.ofSeconds(Long.parseLong(spec.substring(separator + 1).trim())));
+        }
+    }
+
+    // Minimum time between detail fetches of an event kicking off in the given time; zero for every poll
+    public static Duration getKickoffRefreshInterval(Duration untilKickoff) {
+        Map.Entry<Duration, Duration> tier = kickoffRefreshIntervals.floorEntry(untilKickoff);
+        return tier != null ? tier.getValue() : Duration.ZERO;
+    }
+
+    public static boolean hasKickoffRefreshIntervals() {
+        return !kickoffRefreshIntervals.isEmpty();
+    }
+
+    // Accepts "<hours>=<seconds>": events kicking off at least <hours> away are refreshed every <seconds>
+    public static void setKickoffRefreshInterval(String spec) {
+        int separator = spec.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected <hours>=<seconds>: " + spec);
+        }
+        kickoffRefreshIntervals.put(Duration.ofHours(Long.parseLong(spec.substring(0, separator).trim())),
+                Duration.ofSeconds(Long.parseLong(spec.substring(separator + 1).trim())));
+    }
+
+    public static double getPollJitter() {
+        return pollJitter;
+    }
+
+    public static void setPollJitter(double value) {
+        pollJitter = value;
+    }
+
+    public static ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public static void setExecutionMode(ExecutionMode mode) {
+        executionMode = mode;
+    }
+
+    public static int getCpuThreads() {
+        return cpuThreads;
+    }
+
+    public static void setCpuThreads(int value) {
+        cpuThreads = value;
+    }
+
+    public static boolean isAdaptiveLimit() {
+        return adaptiveLimit;
+    }
+
+    public static void setAdaptiveLimit(boolean value) {
+        adaptiveLimit = value;
+    }
+
+    public static int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public static void setMaxConcurrency(int value) {
+        maxConcurrency = value;
+    }
+
+    // 0 means no requests-per-second ceiling
+    public static double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    public static void setMaxRequestsPerSecond(double value) {
+        maxRequestsPerSecond = value;
+    }
+
+    public static boolean isCompression() {
+        return compression;
+    }
+
+    public static void setCompression(boolean value) {
+        compression = value;
+    }
+
+    public static HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    public static void setHttpVersion(HttpClient.Version version) {
+        httpVersion = version;
+    }
+
+    public static Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public static void setConnectTimeout(Duration timeout) {
+        connectTimeout = timeout;
+    }
+
+    public static long getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public static void setKeepAliveSeconds(long value) {
+        keepAliveSeconds = value;
+    }
+
+    public static boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public static void setWarmUp(boolean value) {
+        warmUp = value;
+    }
+
+    // Binds sample responses in the background while the first request is in flight
+    public static boolean isFastStart() {
+        return fastStart;
+    }
+
+    public static void setFastStart(boolean value) {
+        fastStart = value;
+    }
+
+    public static boolean isCoalesceRequests() {
+        return coalesceRequests;
+    }
+
+    public static void setCoalesceRequests(boolean value) {
+        coalesceRequests = value;
+    }
+
+    public static Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public static void setRequestTimeout(Duration timeout) {
+        requestTimeout = timeout;
+    }
+
+    public static Duration getRunDeadline() {
+        return runDeadline;
+    }
+
+    public static void setRunDeadline(Duration deadline) {
+        runDeadline = deadline;
+    }
+
+    public static int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public static void setMaxRetries(int value) {
+        maxRetries = value;
+    }
+
+    public static Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public static void setRetryBackoff(Duration backoff) {
+        retryBackoff = backoff;
+    }
+
+    public static double getRetryBudget() {
+        return retryBudget;
+    }
+
+    public static void setRetryBudget(double ratio) {
+        retryBudget = ratio;
+    }
+
+    public static boolean isHedgeRequests() {
+        return hedgeRequests;
+    }
+
+    public static void setHedgeRequests(boolean value) {
+        hedgeRequests = value;
+    }
+
+    public static boolean isResilienceEnabled() {
+        return requestTimeout != null || (runDeadline != null && !daemon) || maxRetries > 0 || hedgeRequests;
+    }
+
+    public static boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public static void setCacheEnabled(boolean value) {
+        cacheEnabled = value;
+    }
+
+    public static int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public static void setCacheMaxEntries(int value) {
+        cacheMaxEntries = value;
+    }
+
+    public static long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    public static void setCacheMaxBytes(long value) {
+        cacheMaxBytes = value;
+    }
+
+    public static int getLeagueParallelism() {
+        return leagueParallelism;
+    }
+
+    public static void setLeagueParallelism(int value) {
+        leagueParallelism = value;
+    }
+
+    public static int getEventParallelism() {
+        return eventParallelism;
+    }
+
+    public static void setEventParallelism(int value) {
+        eventParallelism = value;
+    }
+
+    public static int getRenderParallelism() {
+        return renderParallelism;
+    }
+
+    public static void setRenderParallelism(int value) {
+        renderParallelism = value;
+    }
+
+    public static int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    public static void setPipelineQueueCapacity(int value) {
+        pipelineQueueCapacity = value;
+    }
+
+    // Port of the Prometheus endpoint; 0 disables it
+    public static int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public static void setMetricsPort(int value) {
+        metricsPort = value;
+    }
+
+    public static boolean isOddsStore() {
+        return oddsStore;
+    }
+
+    public static void setOddsStore(boolean value) {
+        oddsStore = value;
+    }
+
+    public static boolean isDiffOutput() {
+        return diffOutput;
+    }
+
+    public static void setDiffOutput(boolean value) {
+        diffOutput = value;
+    }
+
+    // How often a diffed event is written in full again; zero never does
+    public static Duration getDiffSnapshotInterval() {
+        return diffSnapshotInterval;
+    }
+
+    public static void setDiffSnapshotInterval(Duration value) {
+        diffSnapshotInterval = value;
+    }
+
+    // Directory of the price history log; null disables it
+    public static String getHistoryDir() {
+        return historyDir;
+    }
+
+    public static void setHistoryDir(String value) {
+        historyDir = value;
+    }
+
+    public static long getHistorySegmentBytes() {
+        return historySegmentBytes;
+    }
+
+    public static void setHistorySegmentBytes(long value) {
+        historySegmentBytes = value;
+    }
+
+    // Fixtures directory or "synthetic"; null talks to the live API
+    public static String getReplaySource() {
+        return replaySource;
+    }
+
+    public static void setReplaySource(String value) {
+        replaySource = value;
+    }
+
+    public static LatencyModel getReplayLatency() {
+        return replayLatency;
+    }
+
+    public static void setReplayLatency(LatencyModel value) {
+        replayLatency = value;
+    }
+
+    public static double getReplayErrorRate() {
+        return replayErrorRate;
+    }
+
+    public static void setReplayErrorRate(double value) {
+        replayErrorRate = value;
+    }
+
+    public static int getSyntheticLeagues() {
+        return syntheticLeagues;
+    }
+
+    public static void setSyntheticLeagues(int value) {
+        syntheticLeagues = value;
+    }
+
+    public static int getSyntheticEvents() {
+        return syntheticEvents;
+    }
+
+    public static void setSyntheticEvents(int value) {
+        syntheticEvents = value;
+    }
+
+    public static int getSyntheticMarkets() {
+        return syntheticMarkets;
+    }
+
+    public static void setSyntheticMarkets(int value) {
+        syntheticMarkets = value;
+    }
+
+    public static Duration getCacheTtl(String endpointKey) {
+        return cacheTtls.getOrDefault(endpointKey, Duration.ZERO);
+    }
+
+    // Accepts "<endpoint>=<seconds>", e.g. "league-events=30"
+    public static void setCacheTtl(String spec) {
+        int separator = spec.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected <endpoint>=<seconds>: " + spec);
+        }
+        cacheTtls.put(spec.substring(0, separator).trim(),
+                Duration.ofSeconds(Long.parseLong(spec.substring(separator + 1).trim())));
     }
 
     public static final Set<String> COMMON_API_FLAGS = Set.of(
@@ -0,0 +1,12 @@
+package org.leonbet.config;
+
+public enum ExecutionMode {
+    // One fixed pool of MAX_THREADS platform threads shared by I/O callbacks, decoding and rendering
+    PLATFORM,
+    // A virtual thread per orchestration task; decoding and rendering go to a sized platform pool
+    VIRTUAL;
+
+    public static ExecutionMode fromString(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,281 @@
+package org.leonbet.history;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of every observed price as a fixed-width record
+ * (event id, market id, runner id, price, timestamp) in memory-mapped segment files.
+ *
+ * <p>Fetch threads only copy primitives into a preallocated ring and return; a single writer
+ * thread moves them into the current segment. Nothing is allocated per price on either side.
+ * A full ring blocks producers, so a slow disk throttles polling instead of growing the heap.
+ * If the writer fails, queued and later prices are dropped and counted, so fetching goes on.
+ *
+ * <p>A segment starts with the number of records written to it, kept current as records go
+ * in, so a reader never mistakes the preallocated tail for records. Each segment gets an index
+ * file when it is completed: one entry per run of consecutive records of the same event, so the
+ * history of an event is read without scanning the log. A completed segment is truncated to
+ * the records it holds.
+ */
+public final class PriceHistoryLog implements AutoCloseable {
+    static final int HEADER_BYTES = Long.BYTES; // record count
+    static final int RECORD_BYTES = 40;
+    static final int INDEX_ENTRY_BYTES = 16;   // event id, first record, record count
+    static final String SEGMENT_SUFFIX = ".prices";
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final int FIELDS = RECORD_BYTES / Long.BYTES;
+    private static final int RING_CAPACITY = 64 * 1024; // records
+    private static final int MAX_BATCH = 4096;
+
+    private final Path dir;
+    private final int recordsPerSegment;
+    private final long[] ring = new long[RING_CAPACITY * FIELDS];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long produced; // guarded by lock
+    private long consumed;
+    private boolean closed;
+    private boolean failed; // guarded by lock
+    private final Thread thread;
+
+    // Writer thread state
+    private int segmentNumber;
+    private MappedByteBuffer segment;
+    private int segmentRecords;
+    private long[] index = new long[1024 * 2];
+    private int indexEntries;
+    private long runEvent;
+    private int unwritten; // taken from the ring but not in the segment yet
+
+    public PriceHistoryLog(Path dir, long segmentBytes) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.recordsPerSegment = (int) Math.min((Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES,
+                (segmentBytes - HEADER_BYTES) / RECORD_BYTES);
+        this.segmentNumber = lastSegmentNumber(dir);
+        BenchmarkUtils.registerGauge("History Backlog", this::getBacklog);
+
+        this.thread = new Thread(this::run, "price-history");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Queues every runner price of the event, observed at the given time
+    public void append(Event event, long timestamp) {
+        lock.lock();
+        try {
+            for (Market market : event.markets()) {
+                for (Runner runner : market.runners()) {
+                    while (produced - consumed == RING_CAPACITY && !closed && !failed) {
+                        notEmpty.signal();
+                        notFull.await();
+                    }
+                    if (closed) return;
+                    if (failed) {
+                        BenchmarkUtils.count("History Dropped");
+                        continue;
+                    }
+
+                    int base = (int) (produced % RING_CAPACITY) * FIELDS;
+                    ring[base] = event.id();
+                    ring[base + 1] = market.id();
+                    ring[base + 2] = runner.id();
+                    ring[base + 3] = Double.doubleToRawLongBits(runner.price());
+                    ring[base + 4] = timestamp;
+                    produced++;
+                }
+            }
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBacklog() {
+        lock.lock();
+        try {
+            return produced - consumed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes out everything queued so far, completes the current segment and its index
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long[] batch = new long[MAX_BATCH * FIELDS];
+        try {
+            while (true) {
+                int count;
+                lock.lock();
+                try {
+                    while (produced == consumed && !closed) {
+                        notEmpty.await();
+                    }
+                    if (produced == consumed) break;
+
+                    count = (int) Math.min(produced - consumed, MAX_BATCH);
+                    for (int i = 0; i < count; i++) {
+                        int base = (int) ((consumed + i) % RING_CAPACITY) * FIELDS;
+                        System.arraycopy(ring, base, batch, i * FIELDS, FIELDS);
+                    }
+                    consumed += count;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                long startTime = System.nanoTime();
+                unwritten = count;
+                for (int i = 0; i < count; i++) {
+                    writeRecord(batch, i * FIELDS);
+                    unwritten--;
+                }
+                BenchmarkUtils.record("History Write", startTime);
+                BenchmarkUtils.count("History Records", count);
+            }
+            completeSegment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Price history stopped, further prices are dropped: " + e.getMessage());
+            fail();
+        }
+    }
+
+    // Releases producers waiting for room that the writer will never make
+    private void fail() {
+        lock.lock();
+        try {
+            failed = true;
+            BenchmarkUtils.count("History Dropped", produced - consumed + unwritten);
+            consumed = produced;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeRecord(long[] batch, int offset) throws IOException {
+        if (segment == null || segmentRecords == recordsPerSegment) {
+            completeSegment();
+            openSegment();
+        }
+
+        long eventId = batch[offset];
+        if (eventId != runEvent || indexEntries == 0) {
+            addIndexEntry(eventId, segmentRecords);
+            runEvent = eventId;
+        }
+        index[(indexEntries - 1) * 2 + 1]++;
+
+        int position = HEADER_BYTES + segmentRecords * RECORD_BYTES;
+        for (int field = 0; field < FIELDS; field++) {
+            segment.putLong(position + field * Long.BYTES, batch[offset + field]);
+        }
+        segmentRecords++;
+        // Counted only once the record is complete
+        segment.putLong(0, segmentRecords);
+    }
+
+    // Entries are (event id, first record << 32 | record count)
+    private void addIndexEntry(long eventId, int firstRecord) {
+        if (indexEntries * 2 == index.length) {
+            index = Arrays.copyOf(index, index.length * 2);
+        }
+        index[indexEntries * 2] = eventId;
+        index[indexEntries * 2 + 1] = (long) firstRecord << 32;
+        indexEntries++;
+    }
+
+    private void openSegment() throws IOException {
+        segmentNumber++;
+        try (FileChannel channel = FileChannel.open(segmentFile(dir, segmentNumber, SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        segmentRecords = 0;
+        indexEntries = 0;
+    }
+
+    private void completeSegment() throws IOException {
+        if (segment == null) return;
+        segment.force();
+        segment = null;
+        // Gives back the preallocated tail; the mapping is never touched again
+        try (FileChannel channel = FileChannel.open(segmentFile(dir, segmentNumber, SEGMENT_SUFFIX),
+                StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_BYTES + (long) segmentRecords * RECORD_BYTES);
+        }
+
+        ByteBuffer entries = ByteBuffer.allocate(indexEntries * INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < indexEntries; i++) {
+            entries.putLong(index[i * 2]);
+            entries.putInt((int) (index[i * 2 + 1] >>> 32));
+            entries.putInt((int) index[i * 2 + 1]);
+        }
+        entries.flip();
+        try (FileChannel channel = FileChannel.open(segmentFile(dir, segmentNumber, INDEX_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+        }
+    }
+
+    static Path segmentFile(Path dir, int number, String suffix) {
+        return dir.resolve(String.format("%08d%s", number, suffix));
+    }
+
+    // A restarted log continues after the newest segment instead of appending to it
+    private static int lastSegmentNumber(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .mapToInt(name -> Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .max()
+                    .orElse(0);
+        } catch (NumberFormatException e) {
+            throw new UncheckedIOException(new IOException("Unexpected file in history directory " + dir, e));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.leonbet.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the history of one event from a directory written by {@link PriceHistoryLog}, oldest
+ * first. Completed segments are looked up through their index; a segment without one (the
+ * writer did not shut down cleanly) is scanned up to the record count in its header.
+ */
+public final class PriceHistoryReader {
+    private PriceHistoryReader() {} // Prevent instantiation
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long eventId, long marketId, long runnerId, double price, long timestamp);
+    }
+
+    public static int read(Path dir, long eventId, Visitor visitor) throws IOException {
+        int count = 0;
+        for (Path segmentFile : segments(dir)) {
+            String name = segmentFile.getFileName().toString();
+            Path indexFile = dir.resolve(name.substring(0, name.length() - PriceHistoryLog.SEGMENT_SUFFIX.length())
+                    + PriceHistoryLog.INDEX_SUFFIX);
+
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+                if (channel.size() < PriceHistoryLog.HEADER_BYTES) continue;
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                // The header count is written after each record, the file size bounds a torn header
+                int records = (int) Math.min(segment.getLong(0),
+                        (channel.size() - PriceHistoryLog.HEADER_BYTES) / PriceHistoryLog.RECORD_BYTES);
+
+                if (Files.exists(indexFile)) {
+                    ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile)).order(ByteOrder.LITTLE_ENDIAN);
+                    while (index.remaining() >= PriceHistoryLog.INDEX_ENTRY_BYTES) {
+                        long runEvent = index.getLong();
+                        int first = index.getInt();
+                        int length = index.getInt();
+                        if (runEvent == eventId) {
+                            count += visit(segment, first, Math.min(first + length, records), eventId, visitor);
+                        }
+                    }
+                } else {
+                    count += visit(segment, 0, records, eventId, visitor);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int visit(ByteBuffer segment, int from, int to, long eventId, Visitor visitor) {
+        int count = 0;
+        for (int record = from; record < to; record++) {
+            int position = PriceHistoryLog.HEADER_BYTES + record * PriceHistoryLog.RECORD_BYTES;
+            long recordEvent = segment.getLong(position);
+            if (recordEvent != eventId) continue;
+
+            visitor.visit(recordEvent, segment.getLong(position + 8), segment.getLong(position + 16),
+                    Double.longBitsToDouble(segment.getLong(position + 24)), segment.getLong(position + 32));
+            count++;
+        }
+        return count;
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(PriceHistoryLog.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Event(long id, String name, long kickoff, String betline, List<Market> markets) {
+    public Event {
+        // Shared through caches and coalesced responses, so no caller may change it
+        markets = markets == null ? List.of() : List.copyOf(markets);
+    }
+
+    // The API sends kickoff either in seconds or in milliseconds
+    public long kickoffMillis() {
+        return kickoff > 9999999999L ? kickoff : kickoff * 1000;
+    }
+
+    public boolean isPrematch() {
+        return "prematch".equalsIgnoreCase(betline);
+    }
+}
@@ -0,0 +1,7 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record League(long id, String name, boolean top) {
+}
@@ -0,0 +1,12 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Market(long id, String name, List<Runner> runners) {
+    public Market {
+        runners = runners == null ? List.of() : List.copyOf(runners);
+    }
+}
@@ -0,0 +1,12 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Region(long id, String name, List<League> leagues) {
+    public Region {
+        leagues = leagues == null ? List.of() : List.copyOf(leagues);
+    }
+}
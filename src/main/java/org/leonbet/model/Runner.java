@@ -0,0 +1,7 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Runner(long id, String name, double price) {
+}
@@ -0,0 +1,12 @@
+package org.leonbet.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Sport(long id, String name, List<Region> regions) {
+    public Sport {
+        regions = regions == null ? List.of() : List.copyOf(regions);
+    }
+}
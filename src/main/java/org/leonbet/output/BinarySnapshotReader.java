@@ -0,0 +1,66 @@
+package org.leonbet.output;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loads a file written by BinarySnapshotSink and replays its events into another sink
+public final class BinarySnapshotReader {
+    private BinarySnapshotReader() {} // Prevent instantiation
+
+    public static int read(Path file, OutputSink consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != BinarySnapshotSink.MAGIC) {
+                throw new IOException("Not an odds snapshot: " + file);
+            }
+            byte version = in.readByte();
+            if (version != 1 && version != BinarySnapshotSink.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+
+            int count = 0;
+            while (true) {
+                try {
+                    in.readInt(); // payload length, only needed by readers that skip records
+                } catch (EOFException e) {
+                    return count;
+                }
+
+                long eventId = in.readLong();
+                long kickoff = in.readLong();
+                String sport = in.readUTF();
+                String league = in.readUTF();
+                String eventName = in.readUTF();
+
+                int marketCount = readCount(in, version);
+                List<Market> markets = new ArrayList<>(marketCount);
+                for (int m = 0; m < marketCount; m++) {
+                    long marketId = in.readLong();
+                    String marketName = in.readUTF();
+                    int runnerCount = readCount(in, version);
+                    List<Runner> runners = new ArrayList<>(runnerCount);
+                    for (int r = 0; r < runnerCount; r++) {
+                        runners.add(new Runner(in.readLong(), in.readUTF(), in.readDouble()));
+                    }
+                    markets.add(new Market(marketId, marketName, runners));
+                }
+
+                consumer.writeMatch(sport, league, new Event(eventId, eventName, kickoff, null, markets));
+                count++;
+            }
+        }
+    }
+
+    private static int readCount(DataInputStream in, byte version) throws IOException {
+        return version == 1 ? in.readUnsignedShort() : in.readInt();
+    }
+}
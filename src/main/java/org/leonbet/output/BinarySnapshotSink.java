@@ -0,0 +1,78 @@
+package org.leonbet.output;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.PrinterUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact odds snapshot. The file starts with {@link #MAGIC} and a version byte, followed
+ * by one length-prefixed record per event:
+ * <pre>
+ * int    payload length
+ * long   event id, long kickoff (epoch millis), utf sport, utf league, utf event name
+ * int    market count, then per market: long id, utf name, int runner count,
+ *        then per runner: long id, utf name, double price
+ * </pre>
+ * Strings use {@link DataOutputStream#writeUTF}. Read it back with {@link BinarySnapshotReader}.
+ * Version 1 wrote both counts as unsigned shorts.
+ */
+public class BinarySnapshotSink implements OutputSink {
+    public static final int MAGIC = 0x4F444453; // "ODDS"
+    public static final byte VERSION = 2;
+
+    public BinarySnapshotSink() {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(5);
+        try (DataOutputStream out = new DataOutputStream(header)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        PrinterUtils.write(header.toByteArray());
+    }
+
+    @Override
+    public void writeMatch(String sport, String league, Event event) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(record)) {
+            out.writeInt(0); // length placeholder, patched below
+            out.writeLong(event.id());
+            out.writeLong(event.kickoffMillis());
+            out.writeUTF(nullToEmpty(sport));
+            out.writeUTF(nullToEmpty(league));
+            out.writeUTF(nullToEmpty(event.name()));
+
+            out.writeInt(event.markets().size());
+            for (Market market : event.markets()) {
+                out.writeLong(market.id());
+                out.writeUTF(nullToEmpty(market.name()));
+                out.writeInt(market.runners().size());
+                for (Runner runner : market.runners()) {
+                    out.writeLong(runner.id());
+                    out.writeUTF(nullToEmpty(runner.name()));
+                    out.writeDouble(runner.price());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] bytes = record.toByteArray();
+        int length = bytes.length - Integer.BYTES;
+        bytes[0] = (byte) (length >>> 24);
+        bytes[1] = (byte) (length >>> 16);
+        bytes[2] = (byte) (length >>> 8);
+        bytes[3] = (byte) length;
+        PrinterUtils.write(bytes);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,59 @@
+package org.leonbet.output;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.PrinterUtils;
+
+// One row per runner, with the event and market columns repeated on every row
+public class CsvSink implements OutputSink {
+    private static final String HEADER =
+            "sport,league,event_id,event_name,kickoff,market_id,market_name,runner_id,runner_name,price\n";
+
+    public CsvSink() {
+        PrinterUtils.write(HEADER);
+    }
+
+    @Override
+    public void writeMatch(String sport, String league, Event event) {
+        String rows = render(sport, league, event);
+        if (!rows.isEmpty()) {
+            PrinterUtils.write(rows);
+        }
+    }
+
+    public static String render(String sport, String league, Event event) {
+        StringBuilder block = new StringBuilder(512);
+        StringBuilder eventColumns = new StringBuilder(128);
+        appendField(eventColumns, sport).append(',');
+        appendField(eventColumns, league).append(',');
+        eventColumns.append(event.id()).append(',');
+        appendField(eventColumns, event.name()).append(',');
+        eventColumns.append(event.kickoffMillis()).append(',');
+
+        for (Market market : event.markets()) {
+            for (Runner runner : market.runners()) {
+                block.append(eventColumns).append(market.id()).append(',');
+                appendField(block, market.name()).append(',');
+                block.append(runner.id()).append(',');
+                appendField(block, runner.name()).append(',');
+                // A removed runner's NaN price is an empty field, as NDJSON writes null
+                if (!Double.isNaN(runner.price())) {
+                    block.append(runner.price());
+                }
+                block.append('\n');
+            }
+        }
+
+        return block.toString();
+    }
+
+    // RFC 4180 quoting, only when the value needs it
+    private static StringBuilder appendField(StringBuilder row, String value) {
+        if (value == null) return row;
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) return row.append(value);
+        return row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
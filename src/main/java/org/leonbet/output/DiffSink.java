@@ -0,0 +1,188 @@
+package org.leonbet.output;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.store.ConcurrentLongLongMap;
+import org.leonbet.store.OddsStore;
+import org.leonbet.store.PriceChanges;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Passes on only what changed since an event was last seen: its markets cut down to added and
+ * repriced runners, plus removed runners with a NaN price. Unchanged events are not written at
+ * all, so output grows with market activity rather than with the catalog. The comparison runs
+ * in the odds store against primitive ids and prices. With a snapshot interval, an event is
+ * written in full again once the interval has passed since its last full write. An event that
+ * drops out of its league listing is written once more with every price NaN and forgotten.
+ */
+public class DiffSink implements OutputSink {
+    private final OutputSink delegate;
+    private final OddsStore lastSeen;
+    private final long snapshotMillis;
+    // Event id to the time of its last full write in epoch millis
+    private final ConcurrentLongLongMap lastSnapshots = new ConcurrentLongLongMap(1024);
+
+    // A zero snapshot interval writes only changes after the first sight of an event
+    public DiffSink(OutputSink delegate, OddsStore lastSeen, Duration snapshotInterval) {
+        this.delegate = delegate;
+        this.lastSeen = lastSeen;
+        this.snapshotMillis = snapshotInterval.toMillis();
+    }
+
+    @Override
+    public void writeMatch(String sport, String league, Event event) {
+        Delta delta = new Delta(event);
+        lastSeen.update(sport, league, event, delta);
+        BenchmarkUtils.count("Diff Added", delta.added);
+        BenchmarkUtils.count("Diff Repriced", delta.repriced);
+        BenchmarkUtils.count("Diff Removed", delta.removed);
+
+        if (isSnapshotDue(event.id())) {
+            BenchmarkUtils.count("Diff Snapshots");
+            delegate.writeMatch(sport, league, event);
+        } else if (delta.isEmpty()) {
+            BenchmarkUtils.count("Diff Unchanged Events");
+        } else {
+            delegate.writeMatch(sport, league, delta.toEvent());
+        }
+    }
+
+    @Override
+    public void leagueListed(String sport, String league, long leagueId, long[] eventIds) {
+        lastSeen.retainListed(leagueId, league, eventIds, event -> {
+            lastSnapshots.remove(event.id());
+            BenchmarkUtils.count("Diff Removed Events");
+            delegate.writeMatch(sport, league, withoutPrices(event));
+        });
+        delegate.leagueListed(sport, league, leagueId, eventIds);
+    }
+
+    private boolean isSnapshotDue(long eventId) {
+        if (snapshotMillis <= 0) return false;
+
+        long now = System.currentTimeMillis();
+        long last = lastSnapshots.get(eventId);
+        // A first sight is written in full anyway, every runner is new
+        if (last != ConcurrentLongLongMap.MISSING && now - last < snapshotMillis) return false;
+        lastSnapshots.put(eventId, now);
+        return last != ConcurrentLongLongMap.MISSING;
+    }
+
+    private static Event withoutPrices(Event event) {
+        List<Market> markets = new ArrayList<>(event.markets().size());
+        for (Market market : event.markets()) {
+            List<Runner> runners = new ArrayList<>(market.runners().size());
+            for (Runner runner : market.runners()) {
+                runners.add(new Runner(runner.id(), runner.name(), Double.NaN));
+            }
+            markets.add(new Market(market.id(), market.name(), runners));
+        }
+        return new Event(event.id(), event.name(), event.kickoff(), event.betline(), markets);
+    }
+
+    /**
+     * Marks the changed runners of the fresh event by their flat index, so collecting them
+     * allocates nothing per runner. Removed runners come from the store in market order and
+     * are grouped as they arrive.
+     */
+    private static final class Delta implements PriceChanges {
+        private final Event event;
+        private int[] firstRunner; // flat index of each market's first runner, set on the first change
+        private BitSet changed;
+        private List<RemovedMarket> removedMarkets;
+        private int added;
+        private int repriced;
+        private int removed;
+
+        private Delta(Event event) {
+            this.event = event;
+        }
+
+        @Override
+        public void added(int market, int runner) {
+            added++;
+            keep(market, runner);
+        }
+
+        @Override
+        public void repriced(int market, int runner, double previousPrice) {
+            repriced++;
+            keep(market, runner);
+        }
+
+        @Override
+        public void removed(long marketId, String marketName, long runnerId, String runnerName, double previousPrice) {
+            removed++;
+            if (removedMarkets == null) {
+                removedMarkets = new ArrayList<>();
+            }
+            RemovedMarket last = removedMarkets.isEmpty() ? null : removedMarkets.get(removedMarkets.size() - 1);
+            if (last == null || last.id() != marketId) {
+                last = new RemovedMarket(marketId, marketName, new ArrayList<>());
+                removedMarkets.add(last);
+            }
+            last.runners().add(new Runner(runnerId, runnerName, Double.NaN));
+        }
+
+        private void keep(int market, int runner) {
+            if (changed == null) {
+                List<Market> markets = event.markets();
+                firstRunner = new int[markets.size() + 1];
+                for (int m = 0; m < markets.size(); m++) {
+                    firstRunner[m + 1] = firstRunner[m] + markets.get(m).runners().size();
+                }
+                changed = new BitSet(firstRunner[markets.size()]);
+            }
+            changed.set(firstRunner[market] + runner);
+        }
+
+        private boolean isEmpty() {
+            return added + repriced + removed == 0;
+        }
+
+        // Changed markets in the order of the fresh event, then those only known to the store
+        private Event toEvent() {
+            List<Market> markets = new ArrayList<>();
+            if (changed != null) {
+                for (int m = 0; m < event.markets().size(); m++) {
+                    int from = changed.nextSetBit(firstRunner[m]);
+                    if (from < 0 || from >= firstRunner[m + 1]) continue;
+
+                    Market fresh = event.markets().get(m);
+                    List<Runner> runners = new ArrayList<>();
+                    for (int r = from; r >= 0 && r < firstRunner[m + 1]; r = changed.nextSetBit(r + 1)) {
+                        runners.add(fresh.runners().get(r - firstRunner[m]));
+                    }
+                    RemovedMarket gone = takeRemoved(fresh.id());
+                    if (gone != null) {
+                        runners.addAll(gone.runners());
+                    }
+                    markets.add(new Market(fresh.id(), fresh.name(), runners));
+                }
+            }
+            if (removedMarkets != null) {
+                for (RemovedMarket gone : removedMarkets) {
+                    markets.add(new Market(gone.id(), gone.name(), gone.runners()));
+                }
+            }
+            return new Event(event.id(), event.name(), event.kickoff(), event.betline(), markets);
+        }
+
+        private RemovedMarket takeRemoved(long marketId) {
+            if (removedMarkets == null) return null;
+            for (int i = 0; i < removedMarkets.size(); i++) {
+                if (removedMarkets.get(i).id() == marketId) return removedMarkets.remove(i);
+            }
+            return null;
+        }
+    }
+
+    private record RemovedMarket(long id, String name, List<Runner> runners) {
+    }
+}
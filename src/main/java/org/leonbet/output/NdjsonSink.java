@@ -0,0 +1,62 @@
+package org.leonbet.output;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.PrinterUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// One JSON object per event and line, streamed through a generator without building a tree
+public class NdjsonSink implements OutputSink {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public void writeMatch(String sport, String league, Event event) {
+        PrinterUtils.write(render(sport, league, event));
+    }
+
+    public static byte[] render(String sport, String league, Event event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("sport", sport);
+            json.writeStringField("league", league);
+            json.writeNumberField("id", event.id());
+            json.writeStringField("name", event.name());
+            json.writeNumberField("kickoff", event.kickoffMillis());
+
+            json.writeArrayFieldStart("markets");
+            for (Market market : event.markets()) {
+                json.writeStartObject();
+                json.writeNumberField("id", market.id());
+                json.writeStringField("name", market.name());
+                json.writeArrayFieldStart("runners");
+                for (Runner runner : market.runners()) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", runner.id());
+                    json.writeStringField("name", runner.name());
+                    // A diff marks removed runners with a NaN price, which JSON has no number for
+                    if (Double.isNaN(runner.price())) {
+                        json.writeNullField("price");
+                    } else {
+                        json.writeNumberField("price", runner.price());
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+package org.leonbet.output;
+
+import java.util.function.Supplier;
+
+public enum OutputFormat {
+    TEXT("txt", true, TextSink::new),
+    NDJSON("ndjson", true, NdjsonSink::new),
+    CSV("csv", true, CsvSink::new),
+    BINARY("odds", false, BinarySnapshotSink::new);
+
+    private final String extension;
+    private final boolean text;
+    private final Supplier<OutputSink> factory;
+
+    OutputFormat(String extension, boolean text, Supplier<OutputSink> factory) {
+        this.extension = extension;
+        this.text = text;
+        this.factory = factory;
+    }
+
+    public static OutputFormat fromString(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Text formats are also echoed to the console
+    public boolean isText() {
+        return text;
+    }
+
+    public OutputSink createSink() {
+        return factory.get();
+    }
+}
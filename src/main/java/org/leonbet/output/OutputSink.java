@@ -0,0 +1,12 @@
+package org.leonbet.output;
+
+import org.leonbet.model.Event;
+
+// Receives every fetched match; implementations render it and hand it to PrinterUtils
+public interface OutputSink {
+    void writeMatch(String sport, String league, Event event);
+
+    // The events a fresh listing of the league selected, for sinks that keep state per event
+    default void leagueListed(String sport, String league, long leagueId, long[] eventIds) {
+    }
+}
@@ -0,0 +1,39 @@
+package org.leonbet.output;
+
+import org.leonbet.config.AppConfig;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.PrinterUtils;
+
+import java.time.Instant;
+
+// Human-readable, tab-indented report: sport and league, match, markets, runners
+public class TextSink implements OutputSink {
+
+    @Override
+    public void writeMatch(String sport, String league, Event event) {
+        PrinterUtils.write(render(sport, league, event));
+    }
+
+    public static String render(String sport, String league, Event event) {
+        String kickoffTime = AppConfig.getDateFormatter().format(Instant.ofEpochMilli(event.kickoffMillis()));
+
+        // Rendered off-lock into one block, so matches never interleave in the output
+        StringBuilder block = new StringBuilder(256);
+
+        // TODO: Needs to clarify - should we group outcomes by its market name?
+        PrinterUtils.appendLine(block, 0, sport + ", " + league);
+        PrinterUtils.appendLine(block, 1, event.name() + ", " + kickoffTime + ", " + event.id());
+
+        for (Market market : event.markets()) {
+            PrinterUtils.appendLine(block, 2, market.name());
+
+            for (Runner runner : market.runners()) {
+                PrinterUtils.appendLine(block, 3, runner.name() + ", " + runner.price() + ", " + runner.id());
+            }
+        }
+        PrinterUtils.appendLine(block, 0, "");
+        return block.toString();
+    }
+}
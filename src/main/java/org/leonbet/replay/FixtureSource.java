@@ -0,0 +1,28 @@
+package org.leonbet.replay;
+
+import org.leonbet.client.Endpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recorded responses, one {@code <endpoint>.json} file per endpoint (see fixtures/record.sh).
+ * The same body is served for every id.
+ */
+public class FixtureSource implements ResponseSource {
+    private final Map<Endpoint<?>, byte[]> bodies = new HashMap<>();
+
+    public FixtureSource(Path dir) throws IOException {
+        for (Endpoint<?> endpoint : Endpoint.values()) {
+            bodies.put(endpoint, Files.readAllBytes(dir.resolve(endpoint.getKey() + ".json")));
+        }
+    }
+
+    @Override
+    public byte[] body(Endpoint<?> endpoint, long id) {
+        return bodies.get(endpoint);
+    }
+}
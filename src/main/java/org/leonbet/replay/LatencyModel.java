@@ -0,0 +1,42 @@
+package org.leonbet.replay;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal response time given by its median and 99th percentile, which matches the long
+ * right tail of real API latencies far better than a fixed or uniform delay.
+ */
+public record LatencyModel(double medianMillis, double p99Millis) {
+    public static final LatencyModel NONE = new LatencyModel(0, 0);
+
+    private static final double Z_99 = 2.3263;
+
+    public LatencyModel {
+        if (medianMillis < 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Expected 0 <= median <= p99, got " + medianMillis + ":" + p99Millis);
+        }
+    }
+
+    // Parses "<median ms>" or "<median ms>:<p99 ms>"
+    public static LatencyModel fromString(String spec) {
+        int separator = spec.indexOf(':');
+        if (separator < 0) {
+            double median = Double.parseDouble(spec.trim());
+            return new LatencyModel(median, median);
+        }
+        return new LatencyModel(Double.parseDouble(spec.substring(0, separator).trim()),
+                Double.parseDouble(spec.substring(separator + 1).trim()));
+    }
+
+    public long sampleNanos() {
+        if (medianMillis == 0) return 0;
+        double sigma = Math.log(p99Millis / medianMillis) / Z_99;
+        double millis = medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return (long) (millis * 1_000_000);
+    }
+
+    @Override
+    public String toString() {
+        return medianMillis + ":" + p99Millis;
+    }
+}
@@ -0,0 +1,101 @@
+package org.leonbet.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.leonbet.client.ApiClient;
+import org.leonbet.client.ApiException;
+import org.leonbet.client.ApiResponse;
+import org.leonbet.client.Endpoint;
+import org.leonbet.client.Validators;
+import org.leonbet.trace.RequestSpan;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline stand-in for the API. Responses come from a {@link ResponseSource} after a sampled
+ * delay and are decoded exactly like live ones, so everything from the decorators to the
+ * output path sees real work. A share of requests fails with 503 to exercise error handling
+ * and the adaptive limit. Bodies carry an ETag, so revalidation works as well.
+ */
+public class ReplayApiClient implements ApiClient {
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final ResponseSource source;
+    private final LatencyModel latency;
+    private final double errorRate;
+    private final Executor executor;
+    private final Map<Endpoint<?>, ObjectReader> readers = new HashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    public ReplayApiClient(ResponseSource source, ObjectMapper mapper, LatencyModel latency, double errorRate,
+                           Executor executor) {
+        this.source = source;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.executor = executor;
+        for (Endpoint<?> endpoint : Endpoint.values()) {
+            readers.put(endpoint, endpoint.reader(mapper));
+        }
+        BenchmarkUtils.registerGauge("API In Flight", inFlight::sum);
+    }
+
+    @Override
+    public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+        long startTime = System.nanoTime();
+        inFlight.increment();
+        RequestSpan span = RequestSpan.start(endpoint.getName(), id);
+        long delay = latency.sampleNanos();
+        Executor responder = delay > 0
+                ? CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor)
+                : executor;
+
+        return CompletableFuture.supplyAsync(() -> respond(endpoint, id, validators, span), responder)
+                .whenComplete((value, t) -> {
+                    inFlight.decrement();
+                    BenchmarkUtils.record(endpoint.metric("Fetch"), startTime);
+                    if (t != null) {
+                        BenchmarkUtils.count(endpoint.metric("Errors"));
+                    } else {
+                        BenchmarkUtils.count(endpoint.metric("Bytes Decoded"), value.bodyBytes());
+                    }
+                });
+    }
+
+    // The simulated latency counts as the exchange, decoding starts right after it
+    private <T> ApiResponse<T> respond(Endpoint<T> endpoint, long id, Validators validators, RequestSpan span) {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            span.responded(SERVICE_UNAVAILABLE);
+            throw new ApiException(SERVICE_UNAVAILABLE, endpoint.url(id));
+        }
+        span.responded(200);
+        span.decodeStarted();
+
+        byte[] body = source.body(endpoint, id);
+        Validators current = new Validators("\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"", null);
+        if (current.etag().equals(validators.etag())) {
+            return ApiResponse.unchanged(current);
+        }
+
+        long decodeStart = System.nanoTime();
+        long allocStart = BenchmarkUtils.threadAllocatedBytes();
+        try {
+            T value = readers.get(endpoint).readValue(body);
+            span.decoded(body.length, body.length);
+            return ApiResponse.of(value, current, body.length, body.length);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            BenchmarkUtils.recordAllocation(endpoint.metric("Decode"), decodeStart, allocStart);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.leonbet.replay;
+
+import org.leonbet.client.Endpoint;
+
+// Supplies the raw JSON body the API would return for a resource
+public interface ResponseSource {
+    byte[] body(Endpoint<?> endpoint, long id);
+}
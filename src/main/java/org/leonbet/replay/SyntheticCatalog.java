@@ -0,0 +1,150 @@
+package org.leonbet.replay;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.leonbet.client.Endpoint;
+import org.leonbet.config.AppConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * Generated catalog of any size, for load tests beyond what the live API offers. Top leagues
+ * are spread over the target sports (with a non-top league after every third one for the
+ * filter to skip). Bodies are rendered on request and are deterministic per id, so nothing
+ * but the sports catalog is held in memory.
+ */
+public class SyntheticCatalog implements ResponseSource {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long LEAGUE_ID_BASE = 1_000_000L;
+    private static final long EVENT_IDS_PER_LEAGUE = 1_000L;
+    private static final int LEAGUES_PER_REGION = 50;
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final int leagues;
+    private final int eventsPerLeague;
+    private final int marketsPerEvent;
+    private final int runnersPerMarket;
+    private final long kickoffBase;
+    private final byte[] sports;
+
+    public SyntheticCatalog(int leagues, int eventsPerLeague, int marketsPerEvent, int runnersPerMarket) {
+        if (eventsPerLeague > EVENT_IDS_PER_LEAGUE) {
+            throw new IllegalArgumentException("At most " + EVENT_IDS_PER_LEAGUE + " events per league");
+        }
+        this.leagues = leagues;
+        this.eventsPerLeague = eventsPerLeague;
+        this.marketsPerEvent = marketsPerEvent;
+        this.runnersPerMarket = runnersPerMarket;
+        // Next full hour, so kickoffs stay in the future while the catalog is in use
+        this.kickoffBase = (System.currentTimeMillis() / HOUR_MILLIS + 1) * HOUR_MILLIS;
+        this.sports = render(this::writeSports);
+    }
+
+    @Override
+    public byte[] body(Endpoint<?> endpoint, long id) {
+        if (endpoint == Endpoint.SPORTS) return sports;
+        if (endpoint == Endpoint.LEAGUE_EVENTS) return render(json -> writeLeagueEvents(json, id));
+        return render(json -> writeEvent(json, id, marketsPerEvent));
+    }
+
+    private void writeSports(JsonGenerator json) throws IOException {
+        int sportCount = AppConfig.DEFAULT_TARGET_SPORTS.size();
+        json.writeStartArray();
+        for (int s = 0; s < sportCount; s++) {
+            json.writeStartObject();
+            json.writeNumberField("id", s + 1);
+            json.writeStringField("name", AppConfig.DEFAULT_TARGET_SPORTS.get(s));
+            json.writeArrayFieldStart("regions");
+
+            // League i belongs to sport i % sportCount
+            int sportLeagues = (leagues - s + sportCount - 1) / sportCount;
+            for (int r = 0; r * LEAGUES_PER_REGION < sportLeagues; r++) {
+                json.writeStartObject();
+                json.writeNumberField("id", (s + 1) * 10_000L + r);
+                json.writeStringField("name", "Region " + r);
+                json.writeArrayFieldStart("leagues");
+                int end = Math.min(sportLeagues, (r + 1) * LEAGUES_PER_REGION);
+                for (int l = r * LEAGUES_PER_REGION; l < end; l++) {
+                    long index = (long) l * sportCount + s;
+                    writeLeague(json, LEAGUE_ID_BASE + index, "League " + index, true);
+                    if (l % 3 == 2) {
+                        writeLeague(json, LEAGUE_ID_BASE - 1 - index, "Minor League " + index, false);
+                    }
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeLeague(JsonGenerator json, long id, String name, boolean top) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("name", name);
+        json.writeBooleanField("top", top);
+        json.writeEndObject();
+    }
+
+    // The league listing carries only the main market of each event, like the real one
+    private void writeLeagueEvents(JsonGenerator json, long leagueId) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("totalCount", eventsPerLeague);
+        json.writeArrayFieldStart("events");
+        for (int e = 0; e < eventsPerLeague; e++) {
+            writeEvent(json, leagueId * EVENT_IDS_PER_LEAGUE + e, Math.min(1, marketsPerEvent));
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void writeEvent(JsonGenerator json, long eventId, int markets) throws IOException {
+        SplittableRandom random = new SplittableRandom(eventId);
+        int order = (int) (eventId % EVENT_IDS_PER_LEAGUE);
+        json.writeStartObject();
+        json.writeNumberField("id", eventId);
+        json.writeStringField("name", "Team " + random.nextInt(10_000) + " - Team " + random.nextInt(10_000));
+        // Leagues are staggered by 10 minutes over a day, their events an hour apart
+        long league = eventId / EVENT_IDS_PER_LEAGUE;
+        json.writeNumberField("kickoff", kickoffBase + (league % 144) * HOUR_MILLIS / 6 + order * HOUR_MILLIS);
+        json.writeStringField("betline", "prematch");
+        json.writeArrayFieldStart("markets");
+        for (int m = 0; m < markets; m++) {
+            json.writeStartObject();
+            json.writeNumberField("id", eventId * 100 + m);
+            json.writeStringField("name", "Market " + m);
+            json.writeArrayFieldStart("runners");
+            for (int r = 0; r < runnersPerMarket; r++) {
+                json.writeStartObject();
+                json.writeNumberField("id", (eventId * 100 + m) * 10 + r);
+                json.writeStringField("name", "Runner " + r);
+                json.writeNumberField("price", Math.round(random.nextDouble(1.01, 15.0) * 100) / 100.0);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static byte[] render(JsonWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            writer.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
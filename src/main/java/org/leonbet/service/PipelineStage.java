@@ -0,0 +1,111 @@
+package org.leonbet.service;
+
+import org.leonbet.util.BenchmarkUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * One step of the scrape: a bounded queue drained by a fixed number of workers. Submitting
+ * blocks while the queue is full, so a slow stage holds up the one feeding it instead of
+ * letting work pile up in memory. Workers may block on I/O; they are dedicated threads,
+ * never the pools that complete requests. A stage given an order hands out the smallest
+ * queued item first instead of the oldest.
+ */
+final class PipelineStage<T> {
+    private static final Object END = new Object(); // compared by identity
+
+    private final String name;
+    private final BlockingQueue<Object> queue;
+    // The priority queue is unbounded, so the bound is kept by permits for either kind
+    private final Semaphore slots;
+    private final Consumer<T> handler;
+    private final List<Thread> workers = new ArrayList<>();
+
+    PipelineStage(String name, int parallelism, int capacity, Thread.Builder threads, Consumer<T> handler) {
+        this(name, parallelism, capacity, threads, null, handler);
+    }
+
+    // order may be null for first in, first out
+    PipelineStage(String name, int parallelism, int capacity, Thread.Builder threads, Comparator<? super T> order,
+                  Consumer<T> handler) {
+        this.name = name;
+        this.queue = order == null
+                ? new ArrayBlockingQueue<>(capacity + parallelism)
+                : new PriorityBlockingQueue<>(capacity, endLast(order));
+        this.slots = new Semaphore(capacity);
+        this.handler = handler;
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(threads.name("pipeline-" + name.toLowerCase() + "-" + i).start(this::run));
+        }
+        BenchmarkUtils.registerGauge("Pipeline " + name + " Queue Depth", queue::size);
+    }
+
+    void submit(T item) {
+        try {
+            slots.acquire();
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing for " + name, e);
+        }
+    }
+
+    // Like submit, but returns false instead of waiting while the queue is full
+    boolean trySubmit(T item) {
+        if (!slots.tryAcquire()) return false;
+        if (queue.offer(item)) return true;
+        slots.release();
+        return false;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Lets the workers finish everything queued so far, then stops them
+    void finish() {
+        try {
+            for (int i = 0; i < workers.size(); i++) {
+                queue.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // End markers sort after everything else, so workers stop only once the real work is done
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<Object> endLast(Comparator<? super T> order) {
+        return (a, b) -> a == END ? (b == END ? 0 : 1) : b == END ? -1 : order.compare((T) a, (T) b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run() {
+        while (true) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (item == END) return;
+
+            slots.release();
+            try {
+                handler.accept((T) item);
+            } catch (RuntimeException e) {
+                System.err.println("Pipeline stage " + name + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
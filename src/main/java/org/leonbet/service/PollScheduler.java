@@ -0,0 +1,116 @@
+package org.leonbet.service;
+
+import org.leonbet.util.BenchmarkUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs keyed asynchronous tasks on their own interval. The next run of a key is only
+ * scheduled once the previous one has completed, so a slow task never overlaps itself.
+ * Every delay is jittered so tasks that share an interval drift apart instead of firing
+ * in synchronized bursts. The timer thread only schedules; the work runs wherever the
+ * task's futures run, so a task must start its work without blocking.
+ */
+public class PollScheduler {
+    private final ScheduledExecutorService timer;
+    private final double jitter;
+    private final Map<Long, PolledTask> tasks = new ConcurrentHashMap<>();
+
+    public PollScheduler(ScheduledExecutorService timer, double jitter) {
+        this.timer = timer;
+        this.jitter = jitter;
+    }
+
+    // Registers a new key, or updates interval and task of an existing one from its next run on
+    public void schedule(long key, Duration interval, Supplier<CompletableFuture<?>> task) {
+        schedule(key, interval, task, true);
+    }
+
+    public void schedule(long key, Duration interval, Supplier<CompletableFuture<?>> task, boolean spreadFirstRun) {
+        PolledTask existing = tasks.get(key);
+        if (existing != null) {
+            existing.interval = interval;
+            existing.task = task;
+            return;
+        }
+
+        PolledTask polled = new PolledTask(key, interval, task);
+        tasks.put(key, polled);
+        // Spread the first runs over a whole interval rather than firing all keys at once
+        long initialDelay = spreadFirstRun ? ThreadLocalRandom.current().nextLong(Math.max(1, interval.toMillis())) : 0;
+        timer.schedule(polled::run, initialDelay, TimeUnit.MILLISECONDS);
+    }
+
+    // Stops polling every key that is not in the given set
+    public void retain(Set<Long> keys) {
+        tasks.values().removeIf(task -> {
+            if (keys.contains(task.key)) return false;
+            task.active = false;
+            return true;
+        });
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public void stop() {
+        tasks.values().forEach(task -> task.active = false);
+        tasks.clear();
+    }
+
+    private long nextDelay(Duration interval, long elapsedMillis) {
+        long base = Math.max(0, interval.toMillis() - elapsedMillis);
+        long spread = (long) (interval.toMillis() * jitter);
+        if (spread == 0) return base;
+        return Math.max(0, base + ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+    }
+
+    private final class PolledTask {
+        private final long key;
+        private volatile Duration interval;
+        private volatile Supplier<CompletableFuture<?>> task;
+        private volatile boolean active = true;
+
+        private PolledTask(long key, Duration interval, Supplier<CompletableFuture<?>> task) {
+            this.key = key;
+            this.interval = interval;
+            this.task = task;
+        }
+
+        private void run() {
+            if (!active) return;
+
+            long startTime = System.nanoTime();
+            CompletableFuture<?> result;
+            try {
+                result = task.get();
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+
+            result.whenComplete((v, t) -> {
+                if (t != null) {
+                    System.err.println("Poll " + key + " failed: " + t.getMessage());
+                }
+                BenchmarkUtils.record("Poll Cycle", startTime);
+                if (!active) return;
+                long delay = nextDelay(interval, (System.nanoTime() - startTime) / 1_000_000);
+                try {
+                    timer.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    active = false; // timer was shut down while this poll was running
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.leonbet.service;
+
+import org.leonbet.config.AppConfig;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which listed events are due for a detail fetch on this poll. The refresh interval
+ * depends on the time left to kickoff, so events far in the future are fetched less often
+ * and the requests saved go to the ones about to start.
+ */
+final class RefreshSchedule {
+    // Events that have kicked off drop out of the prematch listings; forget them now and then
+    private static final int SWEEP_EVERY = 4096;
+
+    private final Map<Long, Fetch> lastFetches = new ConcurrentHashMap<>();
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_EVERY);
+
+    // Records the fetch when it is due, so concurrent polls of the same event fetch it once
+    boolean claim(long eventId, long kickoffMillis, long nowMillis) {
+        if (untilSweep.decrementAndGet() <= 0) {
+            untilSweep.set(SWEEP_EVERY);
+            lastFetches.values().removeIf(fetch -> fetch.kickoffMillis < nowMillis);
+        }
+
+        long interval = AppConfig.getKickoffRefreshInterval(Duration.ofMillis(kickoffMillis - nowMillis)).toMillis();
+        Fetch next = new Fetch(nowMillis, kickoffMillis);
+        Fetch last = lastFetches.get(eventId);
+        while (true) {
+            if (last == null) {
+                last = lastFetches.putIfAbsent(eventId, next);
+                if (last == null) return true;
+            } else if (nowMillis - last.atMillis < interval) {
+                return false;
+            } else if (lastFetches.replace(eventId, last, next)) {
+                return true;
+            } else {
+                last = lastFetches.get(eventId);
+            }
+        }
+    }
+
+    // Gives up the claim taken at claimedMillis after its fetch failed, so the next poll retries
+    void release(long eventId, long claimedMillis) {
+        lastFetches.computeIfPresent(eventId, (id, fetch) -> fetch.atMillis == claimedMillis ? null : fetch);
+    }
+
+    private record Fetch(long atMillis, long kickoffMillis) {
+    }
+}
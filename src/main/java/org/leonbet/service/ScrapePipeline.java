@@ -0,0 +1,197 @@
+package org.leonbet.service;
+
+import org.leonbet.client.ApiClient;
+import org.leonbet.config.AppConfig;
+import org.leonbet.config.ExecutionMode;
+import org.leonbet.model.Event;
+import org.leonbet.output.OutputSink;
+import org.leonbet.trace.StageEvent;
+import org.leonbet.trace.Trace;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scrape as three bounded stages: league listings, event details, rendering. Each stage
+ * has its own parallelism and queue, so at most a fixed number of responses is held at any
+ * time whatever the size of the catalog, and a slow output throttles fetching all the way
+ * back to whoever submits leagues. Event details are fetched soonest kickoff first, and with
+ * kickoff refresh intervals configured, events far from kickoff are skipped on most polls.
+ */
+class ScrapePipeline {
+    private final ApiClient apiClient;
+    private final OutputSink fetched;
+    private final OutputSink renderer;
+    private final ListingListener listed;
+    private final PipelineStage<LeagueTask> leagues;
+    private final PipelineStage<EventTask> events;
+    private final PipelineStage<RenderTask> renders;
+    private final RefreshSchedule schedule;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    // fetched runs on the event workers as each event arrives, renderer on the render workers,
+    // listed on the league workers as each listing arrives
+    ScrapePipeline(ApiClient apiClient, OutputSink fetched, OutputSink renderer, ListingListener listed) {
+        this.apiClient = apiClient;
+        this.fetched = fetched;
+        this.renderer = renderer;
+        this.listed = listed;
+        int capacity = AppConfig.getPipelineQueueCapacity();
+        this.renders = new PipelineStage<>("Render", AppConfig.getRenderParallelism(), capacity, threads(),
+                this::render);
+        this.events = new PipelineStage<>("Events", AppConfig.getEventParallelism(), capacity, threads(),
+                Comparator.comparingLong(EventTask::kickoffMillis), this::fetchEvent);
+        this.leagues = new PipelineStage<>("Leagues", AppConfig.getLeagueParallelism(), capacity, threads(),
+                this::fetchLeague);
+        this.schedule = AppConfig.hasKickoffRefreshIntervals() ? new RefreshSchedule() : null;
+    }
+
+    // Completes once every selected match of the league has been rendered; blocks while the pipeline is full.
+    // Every poll of a league starts a new trace, which its events inherit.
+    CompletableFuture<Void> submit(String sport, String league, long leagueId) {
+        LeagueTask task = new LeagueTask(sport, league, leagueId, Trace.newId(), System.nanoTime(),
+                new Progress(league));
+        leagues.submit(task);
+        return task.progress.done;
+    }
+
+    // Like submit, but null instead of waiting while the league stage is full
+    CompletableFuture<Void> trySubmit(String sport, String league, long leagueId) {
+        LeagueTask task = new LeagueTask(sport, league, leagueId, Trace.newId(), System.nanoTime(),
+                new Progress(league));
+        return leagues.trySubmit(task) ? task.progress.done : null;
+    }
+
+    // Drains every stage in order; nothing can be submitted afterwards
+    void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        leagues.finish();
+        events.finish();
+        renders.finish();
+    }
+
+    private void fetchLeague(LeagueTask task) {
+        StageEvent stage = new StageEvent(task.submitted);
+        long previousTrace = Trace.set(task.traceId);
+        try {
+            List<Event> leagueEvents = apiClient.fetchLeagueEvents(task.leagueId).join();
+            if (leagueEvents == null) return;
+
+            long[] selectedIds = new long[leagueEvents.size()];
+            int selected = 0;
+            int maxMatches = AppConfig.getMaxMatches();
+            long now = System.currentTimeMillis();
+            for (Event event : leagueEvents) {
+                if (maxMatches > 0 && selected >= maxMatches) break;
+                // Prematch-only keeps the original rule: the first live event ends the selection
+                if (!AppConfig.isIncludeLive() && !event.isPrematch()) break;
+                selectedIds[selected++] = event.id();
+                if (schedule != null && !schedule.claim(event.id(), event.kickoffMillis(), now)) {
+                    BenchmarkUtils.count("Event Refresh Skipped");
+                    continue;
+                }
+                task.progress.add();
+                events.submit(new EventTask(task.sport, task.league, event.id(), event.kickoffMillis(), now,
+                        task.traceId, System.nanoTime(), task.progress));
+            }
+            listed.listed(task.sport, task.league, task.leagueId, Arrays.copyOf(selectedIds, selected));
+        } catch (CompletionException e) {
+            System.err.println("Failed to fetch league " + task.league + ": " + e.getMessage());
+        } finally {
+            task.progress.release();
+            Trace.set(previousTrace);
+            stage.finish("League", task.traceId, task.sport, task.league, 0);
+        }
+    }
+
+    private void fetchEvent(EventTask task) {
+        StageEvent stage = new StageEvent(task.submitted);
+        long previousTrace = Trace.set(task.traceId);
+        boolean queued = false;
+        boolean succeeded = false;
+        try {
+            Event event = apiClient.fetchEventDetails(task.eventId).join();
+            if (event == null) return;
+            succeeded = true;
+            fetched.writeMatch(task.sport, task.league, event);
+            renders.submit(new RenderTask(task.sport, task.league, event, task.traceId, System.nanoTime(),
+                    task.progress));
+            queued = true;
+        } catch (CompletionException e) {
+            System.err.println("Failed to fetch event " + task.eventId + ": " + e.getMessage());
+        } finally {
+            if (!succeeded && schedule != null) {
+                schedule.release(task.eventId, task.claimedMillis);
+            }
+            if (!queued) task.progress.release();
+            Trace.set(previousTrace);
+            stage.finish("Event", task.traceId, task.sport, task.league, task.eventId);
+        }
+    }
+
+    private void render(RenderTask task) {
+        StageEvent stage = new StageEvent(task.submitted);
+        long previousTrace = Trace.set(task.traceId);
+        try {
+            renderer.writeMatch(task.sport, task.league, task.event);
+        } finally {
+            task.progress.release();
+            Trace.set(previousTrace);
+            stage.finish("Render", task.traceId, task.sport, task.league, task.event.id());
+        }
+    }
+
+    private static Thread.Builder threads() {
+        return AppConfig.getExecutionMode() == ExecutionMode.VIRTUAL
+                ? Thread.ofVirtual()
+                : Thread.ofPlatform().daemon();
+    }
+
+    @FunctionalInterface
+    interface ListingListener {
+        void listed(String sport, String league, long leagueId, long[] eventIds);
+    }
+
+    // submitted is the System.nanoTime() at which the task was handed to its stage
+    private record LeagueTask(String sport, String league, long leagueId, long traceId, long submitted,
+                              Progress progress) {
+    }
+
+    // claimedMillis is when the refresh schedule let the fetch through
+    private record EventTask(String sport, String league, long eventId, long kickoffMillis, long claimedMillis,
+                             long traceId, long submitted, Progress progress) {
+    }
+
+    private record RenderTask(String sport, String league, Event event, long traceId, long submitted,
+                              Progress progress) {
+    }
+
+    // Outstanding work of one league: the listing itself plus each of its queued matches
+    private static final class Progress {
+        private final String league;
+        private final long startTime = System.nanoTime();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Progress(String league) {
+            this.league = league;
+        }
+
+        private void add() {
+            pending.incrementAndGet();
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                BenchmarkUtils.record("Process League", league, startTime);
+                done.complete(null);
+            }
+        }
+    }
+}
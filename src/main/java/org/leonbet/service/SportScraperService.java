@@ -1,139 +1,258 @@
 package org.leonbet.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import org.leonbet.client.ApiClient;
 import org.leonbet.config.AppConfig;
+import org.leonbet.history.PriceHistoryLog;
+import org.leonbet.model.Event;
+import org.leonbet.model.League;
+import org.leonbet.model.Region;
+import org.leonbet.model.Sport;
+import org.leonbet.output.OutputSink;
+import org.leonbet.shard.ShardClient;
+import org.leonbet.shard.ShardRing;
+import org.leonbet.store.OddsStore;
+import org.leonbet.trace.StageEvent;
+import org.leonbet.trace.Trace;
 import org.leonbet.util.BenchmarkUtils;
-import org.leonbet.util.JsonNodeUtils;
 import org.leonbet.util.PrinterUtils;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 public class SportScraperService {
+    // Live events stay listed after kickoff; keep them in the store until a match is surely over
+    private static final Duration LIVE_RETENTION = Duration.ofHours(4);
+
     private final ApiClient apiClient;
     private final ExecutorService executor;
+    private final ExecutorService cpuExecutor;
+    private final OutputSink sink;
+    private final OddsStore store;
+    private final PriceHistoryLog history;
+    private final ShardClient shard;
+    private final ScrapePipeline pipeline;
+    private final LongAdder matchesWritten = new LongAdder();
+    private volatile double matchesPerSecond;
+    private volatile List<Sport> catalog;
 
-    public SportScraperService(ApiClient apiClient, ExecutorService executor) {
+    // The executors are shut down with the service. Store and history are optional, without
+    // them matches are only written out. Without a shard client every league is scraped.
+    public SportScraperService(ApiClient apiClient, ExecutorService executor, ExecutorService cpuExecutor,
+                               OutputSink sink, OddsStore store, PriceHistoryLog history, ShardClient shard) {
         this.apiClient = apiClient;
         this.executor = executor;
+        this.cpuExecutor = cpuExecutor;
+        this.sink = sink;
+        this.store = store;
+        this.history = history;
+        this.shard = shard;
+        this.pipeline = new ScrapePipeline(apiClient, this::storeMatch, this::printMatch, this::leagueListed);
     }
 
     // TODO: Needs to clarify - don't sure if sports parallel processing is allowed.
     public void start() {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        BenchmarkUtils.recordSinceStartup("Startup To First Request");
         try {
-            apiClient.fetchSports()
-                    .thenApplyAsync(json -> json.isArray() ? json : null, executor)
-                    .thenAcceptAsync(this::processSports, executor)
-                    .whenComplete((v, t) -> {
-                        if (t != null) {
-                            System.err.println("Error in processing: " + t.getMessage());
-                        }
-                        executor.shutdown();
-                        if (AppConfig.isPrintToFile()) {
-                            PrinterUtils.closeFile();
-                        }
-                    })
-                    .join();
+            processSports(apiClient.fetchSports().join());
+        } catch (CompletionException e) {
+            System.err.println("Error in processing: " + e.getMessage());
         } finally {
+            pipeline.finish();
+            shutdownExecutors();
+            closeOutputs();
+            long elapsed = System.nanoTime() - startTime;
+            matchesPerSecond = matchesWritten.sum() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
             BenchmarkUtils.record("Total Execution", startTime);
+            BenchmarkUtils.recordSinceStartup("Startup To Exit");
             if (BenchmarkUtils.isEnabled()) {
                 BenchmarkUtils.printReport();
+                printThroughput(elapsed);
             }
         }
     }
 
-    private void processSports(JsonNode sportsArray) {
-        if (sportsArray == null) return;
+    // Matches written per second by the last single pass
+    public double getMatchesPerSecond() {
+        return matchesPerSecond;
+    }
 
-        long startTime = System.currentTimeMillis();
-        List<CompletableFuture<Void>> leagueFutures = new ArrayList<>();
+    // Long-running mode: the catalog and every league are re-polled until the JVM is stopped
+    public void startDaemon() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            // The one thread that outlives main: everything else is a daemon or started on demand
+            return new Thread(r, "poll-timer");
+        });
+        PollScheduler catalogPoller = new PollScheduler(timer, AppConfig.getPollJitter());
+        PollScheduler leaguePoller = new PollScheduler(timer, AppConfig.getPollJitter());
 
-        for (JsonNode sport : sportsArray) {
-            if (!JsonNodeUtils.isSportSupported(sport)) continue;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            catalogPoller.stop();
+            leaguePoller.stop();
+            timer.shutdownNow();
+            pipeline.finish();
+            shutdownExecutors();
+            closeOutputs();
+            if (BenchmarkUtils.isEnabled()) {
+                BenchmarkUtils.printReport();
+            }
+        }));
 
-            String sportName = JsonNodeUtils.getSportName(sport);
-            for (JsonNode region : sport.path("regions")) {
-                for (JsonNode league : region.path("leagues")) {
-                    if (!JsonNodeUtils.isTopLeague(league)) continue;
+        if (shard != null) {
+            shard.setRingListener(() -> refreshLeagues(catalog, leaguePoller));
+        }
+        BenchmarkUtils.recordSinceStartup("Startup To First Request");
+        catalogPoller.schedule(0, AppConfig.getSportsRefreshInterval(),
+                () -> apiClient.fetchSports().thenAcceptAsync(sports -> refreshLeagues(sports, leaguePoller), executor),
+                false);
+    }
 
-                    long leagueId = JsonNodeUtils.getLeagueId(league);
-                    String leagueName = JsonNodeUtils.getLeagueName(league);
+    private void shutdownExecutors() {
+        executor.shutdown();
+        if (cpuExecutor != executor) {
+            cpuExecutor.shutdown();
+        }
+    }
 
-                    leagueFutures.add(processLeague(sportName, leagueName, leagueId));
-                }
-            }
+    private void closeOutputs() {
+        PrinterUtils.close();
+        if (history != null) {
+            history.close();
+        }
+    }
+
+    // Also runs when the shard ring changes, hence synchronized
+    private synchronized void refreshLeagues(List<Sport> sports, PollScheduler leaguePoller) {
+        if (sports == null) return;
+
+        catalog = sports;
+        if (store != null) {
+            // Leagues dropped from the catalog or from this shard are no longer listed, so their
+            // events only leave the store once they have started
+            long retention = AppConfig.isIncludeLive() ? LIVE_RETENTION.toMillis() : 0;
+            store.removeStartedBefore(System.currentTimeMillis() - retention);
         }
+        Set<Long> leagueIds = new HashSet<>();
+        forEachTargetLeague(sports, (sport, league) -> {
+            if (shard != null && !shard.owns(league.id())) return;
+            leagueIds.add(league.id());
+            leaguePoller.schedule(league.id(), AppConfig.getPollInterval(sport.name()),
+                    () -> pollLeague(sport.name(), league.name(), league.id()));
+        });
+        leaguePoller.retain(leagueIds);
+    }
+
+    // Runs on the poll timer, which must never wait for room in the pipeline: a full pipeline
+    // skips this poll of the league, the next one follows an interval later
+    private CompletableFuture<Void> pollLeague(String sport, String league, long leagueId) {
+        CompletableFuture<Void> done = pipeline.trySubmit(sport, league, leagueId);
+        if (done != null) return done;
+        BenchmarkUtils.count("Poll Skipped Pipeline Full");
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Feeds the pipeline from the calling thread, which waits whenever the pipeline is full
+    private void processSports(List<Sport> sports) {
+        if (sports == null) return;
 
-        CompletableFuture.allOf(leagueFutures.toArray(new CompletableFuture[0])).join();
+        long startTime = System.nanoTime();
+        if (shard != null) {
+            processShard(sports);
+        } else {
+            forEachTargetLeague(sports, (sport, league) -> pipeline.submit(sport.name(), league.name(), league.id()));
+        }
+        pipeline.finish();
         BenchmarkUtils.record("Process Sports", startTime);
     }
 
-    private CompletableFuture<Void> processLeague(String sportName, String leagueName, long leagueId) {
-        long startTime = System.currentTimeMillis();
-        return apiClient.fetchLeagueEvents(leagueId)
-                .thenApplyAsync(json -> json.path("events").isArray() ? json.path("events") : null, executor)
-                .thenComposeAsync(eventsArray -> {
-                    if (eventsArray == null) return CompletableFuture.completedFuture(null);
-
-                    List<JsonNode> events = new ArrayList<>();
-                    for (JsonNode event : eventsArray) {
-                        if (events.size() >= AppConfig.MAX_MATCHES
-                                || !"prematch".equalsIgnoreCase(event.path("betline").asText())) break;
-                        events.add(event);
-                    }
-
-                    List<CompletableFuture<Void>> matchFutures = events.stream()
-                            .map(event -> {
-                                long eventId = JsonNodeUtils.getEventId(event);
-                                return apiClient.fetchEventDetails(eventId)
-                                        .thenAccept(fullEvent -> printMatch(sportName, leagueName, fullEvent));
-                            })
-                            .toList();
-
-                    return CompletableFuture.allOf(matchFutures.toArray(new CompletableFuture[0]))
-                            .whenComplete((v, t) -> BenchmarkUtils.record("Process League " + leagueName, startTime));
-                }, executor);
+    // The leagues this shard owns, then those it adopts from lost shards, until the coordinator ends the pass
+    private void processShard(List<Sport> sports) {
+        Set<Long> submitted = new HashSet<>();
+        ShardRing ring = shard.getRing();
+        while (ring != null) {
+            ShardRing current = ring;
+            List<CompletableFuture<Void>> leagues = new ArrayList<>();
+            forEachTargetLeague(sports, (sport, league) -> {
+                long leagueId = league.id();
+                if (current.owner(leagueId) != shard.getIndex() || shard.isCompletedElsewhere(leagueId)
+                        || !submitted.add(leagueId)) return;
+                leagues.add(pipeline.submit(sport.name(), league.name(), leagueId)
+                        .thenRun(() -> shard.reportDone(leagueId, matchesWritten.sum())));
+            });
+            CompletableFuture.allOf(leagues.toArray(CompletableFuture[]::new)).join();
+            ring = shard.awaitChange(current, matchesWritten.sum());
+        }
     }
 
-    private void printMatch(String sport, String league, JsonNode event) {
-        long startTime = System.currentTimeMillis();
-        String matchName = event.path("name").asText();
-        long kickoffTimestamp = event.path("kickoff").asLong();
-        long matchId = JsonNodeUtils.getEventId(event);
-
-        Instant kickoffInstant = kickoffTimestamp > 9999999999L
-                ? Instant.ofEpochMilli(kickoffTimestamp)
-                : Instant.ofEpochSecond(kickoffTimestamp);
-
-        String kickoffTime = AppConfig.getDateFormatter().format(kickoffInstant);
-
-        // TODO: Needs to clarify - should we group outcomes by its market name?
-        PrinterUtils.print(0, sport + ", " + league);
-        PrinterUtils.print(1, matchName + ", " + kickoffTime + ", " + matchId);
-
-        JsonNode markets = event.path("markets");
-        if (markets.isArray()) {
-            for (JsonNode market : markets) {
-                String marketName = market.path("name").asText();
-                PrinterUtils.print(2, marketName);
-
-                JsonNode runners = market.path("runners");
-                if (runners.isArray()) {
-                    for (JsonNode runner : runners) {
-                        String outcomeName = runner.path("name").asText();
-                        double outcomePrice = runner.path("price").asDouble();
-                        long outcomeId = runner.path("id").asLong();
-                        PrinterUtils.print(3, outcomeName + ", " + outcomePrice + ", " + outcomeId);
-                    }
+    static void forEachTargetLeague(List<Sport> sports, BiConsumer<Sport, League> action) {
+        for (Sport sport : sports) {
+            if (!AppConfig.isTargetSport(sport.name())) continue;
+
+            for (Region region : sport.regions()) {
+                for (League league : region.leagues()) {
+                    if (AppConfig.isTopLeaguesOnly() && !league.top()) continue;
+
+                    action.accept(sport, league);
                 }
             }
         }
-        PrinterUtils.print(0, "");
-        BenchmarkUtils.record("Print Match " + matchName, startTime);
     }
-} 
\ No newline at end of file
+
+    // Runs on the event workers as each event arrives, before it is queued for rendering
+    private void storeMatch(String sport, String league, Event event) {
+        StageEvent stage = new StageEvent(0);
+        if (store != null) {
+            long startTime = System.nanoTime();
+            store.update(sport, league, event);
+            BenchmarkUtils.record("Store Update", startTime);
+        }
+        if (history != null) {
+            history.append(event, System.currentTimeMillis());
+        }
+        stage.finish("Store", Trace.current(), sport, league, event.id());
+    }
+
+    // Runs on the league workers with the events each listing selected
+    private void leagueListed(String sport, String league, long leagueId, long[] eventIds) {
+        if (store != null) {
+            store.retainListed(leagueId, league, eventIds, null);
+        }
+        sink.leagueListed(sport, league, leagueId, eventIds);
+    }
+
+    private void printMatch(String sport, String league, Event event) {
+        long startTime = System.nanoTime();
+        sink.writeMatch(sport, league, event);
+        matchesWritten.increment();
+        BenchmarkUtils.record("Print Match", event.name(), startTime);
+    }
+
+    private void printThroughput(long elapsedNanos) {
+        double seconds = Math.max(1, elapsedNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        long decoded = 0;
+        long onWire = 0;
+        for (var counter : BenchmarkUtils.getCounters().entrySet()) {
+            if (counter.getKey().startsWith("Bytes Decoded ")) decoded += counter.getValue();
+            if (counter.getKey().startsWith("Bytes On Wire ")) onWire += counter.getValue();
+        }
+
+        System.out.println("=== Throughput ===");
+        System.out.printf("Matches        %12d %12.1f/s%n", matchesWritten.sum(), matchesPerSecond);
+        System.out.printf("MB decoded     %12.1f %12.1f/s%n", decoded / 1048576.0, decoded / 1048576.0 / seconds);
+        if (onWire > 0) {
+            System.out.printf("MB on wire     %12.1f %12.1f/s%n", onWire / 1048576.0, onWire / 1048576.0 / seconds);
+        }
+        System.out.println();
+    }
+}
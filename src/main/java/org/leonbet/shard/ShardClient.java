@@ -0,0 +1,157 @@
+package org.leonbet.shard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Worker side of the coordinator connection. Holds the current ring, tells the coordinator
+ * which leagues are done and learns which leagues of lost shards were finished before they
+ * died. A worker that loses its coordinator stops, so no orphan keeps polling.
+ */
+public final class ShardClient {
+    private final int index;
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private final Set<Long> completedElsewhere = ConcurrentHashMap.newKeySet();
+    private volatile ShardRing ring;
+    private volatile boolean exit;
+    private volatile Runnable ringListener = () -> {};
+
+    private ShardClient(int index, Socket socket) throws IOException {
+        this.index = index;
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    // Registers with the coordinator on the loopback port and waits for the first ring
+    public static ShardClient connect(int index, int port) throws IOException {
+        ShardClient client = new ShardClient(index, new Socket(InetAddress.getLoopbackAddress(), port));
+        client.send(ShardCoordinator.HELLO + " " + index);
+        while (client.ring == null) {
+            String line = client.in.readLine();
+            if (line == null) throw new IOException("Coordinator closed the connection");
+            client.handle(line);
+        }
+
+        Thread listener = new Thread(client::listen, "shard-client");
+        listener.setDaemon(true);
+        listener.start();
+        return client;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public ShardRing getRing() {
+        return ring;
+    }
+
+    public boolean owns(long leagueId) {
+        return ring.owner(leagueId) == index;
+    }
+
+    // Finished by a shard that was lost afterwards, so not to be fetched again
+    public boolean isCompletedElsewhere(long leagueId) {
+        return completedElsewhere.contains(leagueId);
+    }
+
+    // Called with the new ring after every membership change
+    public void setRingListener(Runnable listener) {
+        this.ringListener = listener;
+    }
+
+    public void reportDone(long leagueId, long matchesWritten) {
+        send(ShardCoordinator.DONE + " " + leagueId + " " + matchesWritten);
+    }
+
+    // Reports every league of the seen ring as done, then waits for a newer ring; null once the pass is over
+    public ShardRing awaitChange(ShardRing seen, long matchesWritten) {
+        send(ShardCoordinator.FINISHED + " " + seen.getVersion() + " " + matchesWritten);
+        synchronized (this) {
+            while (!exit && ring == seen) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return exit ? null : ring;
+        }
+    }
+
+    private void listen() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                handle(line);
+                if (exit) return;
+            }
+        } catch (IOException e) {
+            // Same as the coordinator going away
+        }
+        if (!exit) {
+            System.err.println("Shard " + index + " lost its coordinator, stopping");
+            System.exit(1);
+        }
+    }
+
+    private void handle(String line) {
+        int separator = line.indexOf(' ');
+        String command = separator < 0 ? line : line.substring(0, separator);
+        String argument = separator < 0 ? "" : line.substring(separator + 1);
+        switch (command) {
+            case ShardCoordinator.COMPLETED -> {
+                for (String id : argument.split(",")) {
+                    if (!id.isEmpty()) completedElsewhere.add(Long.parseLong(id));
+                }
+            }
+            case ShardCoordinator.RING -> {
+                synchronized (this) {
+                    ring = ShardRing.decode(argument);
+                    notifyAll();
+                }
+                ringListener.run();
+            }
+            case ShardCoordinator.EXIT -> {
+                synchronized (this) {
+                    exit = true;
+                    notifyAll();
+                }
+                closeQuietly();
+            }
+            default -> System.err.println("Unknown coordinator message: " + line);
+        }
+    }
+
+    private void send(String message) {
+        synchronized (out) {
+            try {
+                out.write(message);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to reach the coordinator: " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // The pass is over either way
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.leonbet.shard;
+
+import org.leonbet.Main;
+import org.leonbet.util.PrinterUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a scrape as several worker processes on this machine. Each worker is this application
+ * started with the same arguments plus its shard index; it owns the leagues the ring maps to
+ * it. Workers report finished leagues over a loopback socket. When one dies, the ring is
+ * rebuilt without it and the survivors take over its leagues, except those it had already
+ * finished. Text output of the workers is merged into this process's stdout a whole match
+ * block at a time.
+ *
+ * <p>Protocol, one line per message. Worker: {@code HELLO <shard>}, {@code DONE <league>
+ * <matches>}, {@code FINISHED <ring version> <matches>}. Coordinator: {@code COMPLETED
+ * <league>,...}, {@code RING <version> <shard>,...}, {@code EXIT}.
+ */
+public final class ShardCoordinator {
+    static final String HELLO = "HELLO";
+    static final String DONE = "DONE";
+    static final String FINISHED = "FINISHED";
+    static final String COMPLETED = "COMPLETED";
+    static final String RING = "RING";
+    static final String EXIT = "EXIT";
+
+    private static final long STOP_GRACE_SECONDS = 10;
+    private static final Pattern RECORDING_FILENAME = Pattern.compile("filename=([^,]*)");
+
+    private final int shards;
+    private final List<String> workerArgs;
+    private final boolean daemon;
+    private final List<Worker> workers = new ArrayList<>();
+    private final CountDownLatch passOver = new CountDownLatch(1);
+    private ShardRing ring;
+    private boolean complete;
+    private boolean stopping;
+
+    // workerArgs are passed to every worker, followed by its shard index and the coordinator port
+    public ShardCoordinator(int shards, List<String> workerArgs, boolean daemon) {
+        this.shards = shards;
+        this.workerArgs = workerArgs;
+        this.daemon = daemon;
+    }
+
+    // Returns the exit status: 0 once every league has been scraped, 1 if every worker was lost
+    public int run() {
+        long startTime = System.nanoTime();
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < shards; i++) members.add(i);
+        ring = new ShardRing(members, 1);
+
+        try (ServerSocket server = new ServerSocket(0, shards, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < shards; i++) {
+                workers.add(new Worker(i, start(i, server.getLocalPort())));
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopWorkers));
+            Thread acceptor = new Thread(() -> accept(server), "shard-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            passOver.await();
+            for (Worker worker : workers) {
+                worker.process.waitFor();
+                worker.output.join();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start shard workers", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PrinterUtils.close();
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        long matches = workers.stream().mapToLong(worker -> worker.matches).sum();
+        long lost = workers.stream().filter(worker -> worker.lost).count();
+        System.err.printf("Shard pass: %d shards (%d lost), %d matches in %.1f s, %.1f matches/s%n",
+                shards, lost, matches, seconds, matches / seconds);
+        return complete ? 0 : 1;
+    }
+
+    private Process start(int shard, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String jvmArgument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            command.add(perShard(jvmArgument, shard));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.addAll(workerArgs);
+        command.addAll(List.of("--shard-worker", String.valueOf(shard), "--coordinator-port", String.valueOf(port)));
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    // A flight recording file named on the command line gets the shard suffix, like output files
+    private static String perShard(String jvmArgument, int shard) {
+        if (!jvmArgument.startsWith("-XX:StartFlightRecording")) return jvmArgument;
+
+        Matcher filename = RECORDING_FILENAME.matcher(jvmArgument);
+        if (!filename.find()) return jvmArgument;
+        String name = filename.group(1);
+        String suffix = ".shard-" + shard;
+        String renamed = name.endsWith(".jfr")
+                ? name.substring(0, name.length() - ".jfr".length()) + suffix + ".jfr"
+                : name + suffix;
+        return jvmArgument.substring(0, filename.start(1)) + renamed + jvmArgument.substring(filename.end(1));
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread reader = new Thread(() -> serve(socket), "shard-connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Worker worker = null;
+        try (socket; BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(" ");
+                switch (parts[0]) {
+                    case HELLO -> {
+                        worker = workers.get(Integer.parseInt(parts[1]));
+                        worker.connect(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                    }
+                    case DONE -> {
+                        worker.completed.add(Long.parseLong(parts[1]));
+                        worker.matches = Long.parseLong(parts[2]);
+                    }
+                    case FINISHED -> {
+                        worker.matches = Long.parseLong(parts[2]);
+                        finished(worker, Long.parseLong(parts[1]));
+                    }
+                    default -> System.err.println("Unknown worker message: " + line);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Shard connection failed: " + e.getMessage());
+        }
+        // Reports still buffered in the socket have been read by now, so the completed set is final
+        if (worker != null) {
+            lost(worker);
+        }
+    }
+
+    private synchronized void finished(Worker worker, long version) {
+        worker.finishedVersion = version;
+        if (daemon || complete) return;
+
+        for (Worker other : workers) {
+            if (!other.lost && other.finishedVersion != ring.getVersion()) return;
+        }
+        complete = true;
+        workers.forEach(other -> other.send(EXIT));
+        passOver.countDown();
+    }
+
+    private synchronized void lost(Worker worker) {
+        if (worker.lost || complete || stopping) return;
+
+        worker.lost = true;
+        Set<Integer> members = new TreeSet<>(ring.getMembers());
+        members.remove(worker.shard);
+        if (members.isEmpty()) {
+            System.err.println("Every shard worker was lost");
+            passOver.countDown();
+            return;
+        }
+
+        ring = new ShardRing(members, ring.getVersion() + 1);
+        System.err.println("Shard " + worker.shard + " lost, its leagues move to shards " + members);
+        String completed = COMPLETED + " " + String.join(",", worker.completed.stream().map(String::valueOf).toList());
+        for (Worker other : workers) {
+            if (other.lost) continue;
+            other.send(completed);
+            other.send(RING + " " + ring.encode());
+        }
+    }
+
+    private void stopWorkers() {
+        synchronized (this) {
+            stopping = true;
+        }
+        for (Worker worker : workers) {
+            worker.process.destroy();
+        }
+        for (Worker worker : workers) {
+            try {
+                if (!worker.process.waitFor(STOP_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+                worker.output.join(TimeUnit.SECONDS.toMillis(STOP_GRACE_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        PrinterUtils.close();
+    }
+
+    // Copies a worker's stdout into ours; a match block ends with an empty line
+    private static void merge(InputStream output) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8))) {
+            StringBuilder block = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                PrinterUtils.appendLine(block, 0, line);
+                if (line.isEmpty()) {
+                    PrinterUtils.write(block.toString());
+                    block.setLength(0);
+                }
+            }
+            if (!block.isEmpty()) {
+                PrinterUtils.write(block.toString());
+            }
+        } catch (IOException e) {
+            // Destroying a worker closes its stream; everything it wrote before is merged
+        }
+    }
+
+    private final class Worker {
+        private final int shard;
+        private final Process process;
+        private final Thread output;
+        private final Set<Long> completed = ConcurrentHashMap.newKeySet();
+        private Writer connection;
+        private volatile long matches;
+        private long finishedVersion;
+        private boolean lost;
+
+        private Worker(int shard, Process process) {
+            this.shard = shard;
+            this.process = process;
+            this.output = new Thread(() -> merge(process.getInputStream()), "shard-output-" + shard);
+            this.output.start();
+            // A worker that dies before it connects has no connection to notice it
+            process.onExit().thenRun(() -> {
+                synchronized (ShardCoordinator.this) {
+                    if (connection != null) return;
+                }
+                lost(this);
+            });
+        }
+
+        private void connect(Writer writer) {
+            synchronized (ShardCoordinator.this) {
+                connection = writer;
+                send(RING + " " + ring.encode());
+            }
+        }
+
+        // Callers hold the coordinator lock, which keeps messages to one worker in order
+        private void send(String message) {
+            if (connection == null) return;
+            try {
+                connection.write(message);
+                connection.write('\n');
+                connection.flush();
+            } catch (IOException e) {
+                // The connection reader notices the loss
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.leonbet.shard;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring over shard indexes. Every shard owns {@value #POINTS_PER_SHARD}
+ * points on the ring and a league belongs to the shard of the first point at or after the
+ * league's hash, so removing a shard moves only the leagues it owned. Immutable; a
+ * membership change builds a new ring.
+ */
+public final class ShardRing {
+    private static final int POINTS_PER_SHARD = 128;
+
+    private final List<Integer> members;
+    private final long version;
+    private final NavigableMap<Long, Integer> points = new TreeMap<>();
+
+    public ShardRing(Collection<Integer> members, long version) {
+        if (members.isEmpty()) throw new IllegalArgumentException("A ring needs at least one shard");
+        this.members = members.stream().sorted().toList();
+        this.version = version;
+        for (int member : this.members) {
+            for (int point = 0; point < POINTS_PER_SHARD; point++) {
+                points.put(mix((long) member << 32 | point), member);
+            }
+        }
+    }
+
+    public int owner(long leagueId) {
+        Map.Entry<Long, Integer> point = points.ceilingEntry(mix(leagueId));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public List<Integer> getMembers() {
+        return members;
+    }
+
+    // Increases with every membership change, so stale acknowledgements can be told apart
+    public long getVersion() {
+        return version;
+    }
+
+    // "<version> <member>,<member>,..." as sent over the coordinator connection
+    public String encode() {
+        StringBuilder out = new StringBuilder().append(version).append(' ');
+        for (int i = 0; i < members.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(members.get(i));
+        }
+        return out.toString();
+    }
+
+    public static ShardRing decode(String encoded) {
+        String[] parts = encoded.trim().split(" ");
+        List<Integer> members = Arrays.stream(parts[1].split(",")).map(Integer::parseInt).toList();
+        return new ShardRing(members, Long.parseLong(parts[0]));
+    }
+
+    // League ids are sequential, so spread them before placing them on the ring (SplitMix64 finalizer)
+    private static long mix(long value) {
+        long h = value;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,129 @@
+package org.leonbet.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing map from primitive long keys to primitive doubles, stored as raw bits next
+ * to the keys: two longs per slot and no objects per entry. Same publication scheme as
+ * {@link ConcurrentLongObjectMap}: lock-free reads, writers serialize on the map. Missing
+ * keys read as NaN, and removal stores NaN, so NaN itself cannot be a value. Key 0 marks
+ * free slots, so its value is kept in one extra slot behind the table.
+ */
+public final class ConcurrentLongDoubleMap {
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final long ABSENT = Double.doubleToRawLongBits(Double.NaN);
+
+    private volatile Table table;
+    private int used; // occupied slots including removed ones, guarded by this
+    private int size;
+
+    public ConcurrentLongDoubleMap(int expectedSize) {
+        this.table = new Table(LongHash.capacityFor(expectedSize));
+    }
+
+    public double get(long key) {
+        Table t = table;
+        if (key == LongHash.EMPTY) return Double.longBitsToDouble(t.values.get(t.zeroSlot()));
+        int mask = t.mask;
+        for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+            long k = t.keys.get(i);
+            if (k == key) return Double.longBitsToDouble(t.values.get(i));
+            if (k == LongHash.EMPTY) return Double.NaN;
+        }
+    }
+
+    // Returns the previous value, or NaN if the key was absent
+    public synchronized double put(long key, double value) {
+        if (Double.isNaN(value)) throw new IllegalArgumentException("NaN marks absent keys");
+        long bits = Double.doubleToRawLongBits(value);
+        if (key == LongHash.EMPTY) {
+            long previous = table.values.getAndSet(table.zeroSlot(), bits);
+            if (previous == ABSENT) size++;
+            return Double.longBitsToDouble(previous);
+        }
+        if (used + 1 > table.capacity() * LOAD_FACTOR) {
+            table = grow(table, size + 1);
+        }
+
+        Table t = table;
+        int i = t.find(key);
+        if (t.keys.get(i) == key) {
+            long previous = t.values.getAndSet(i, bits);
+            if (previous == ABSENT) size++;
+            return Double.longBitsToDouble(previous);
+        }
+        t.values.set(i, bits);
+        t.keys.set(i, key);
+        used++;
+        size++;
+        return Double.NaN;
+    }
+
+    // One lock acquisition for a whole event's worth of prices
+    public synchronized void putAll(long[] keys, double[] values) {
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    public synchronized double remove(long key) {
+        Table t = table;
+        int i = key == LongHash.EMPTY ? t.zeroSlot() : t.find(key);
+        if (t.keys.get(i) != key) return Double.NaN;
+        long previous = t.values.getAndSet(i, ABSENT);
+        if (previous != ABSENT) size--;
+        return Double.longBitsToDouble(previous);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    private Table grow(Table old, int liveEntries) {
+        Table grown = new Table(LongHash.capacityFor(Math.max(liveEntries, old.capacity() / 2)));
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.keys.get(i);
+            long bits = old.values.get(i);
+            if (key == LongHash.EMPTY || bits == ABSENT) continue;
+            int slot = grown.find(key);
+            grown.values.set(slot, bits);
+            grown.keys.set(slot, key);
+        }
+        long zero = old.values.get(old.zeroSlot());
+        grown.values.set(grown.zeroSlot(), zero);
+        used = zero == ABSENT ? size : size - 1;
+        return grown;
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity + 1);
+            this.values = new AtomicLongArray(capacity + 1);
+            this.mask = capacity - 1;
+            values.set(capacity, ABSENT);
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int zeroSlot() {
+            return mask + 1;
+        }
+
+        int find(long key) {
+            for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key || k == LongHash.EMPTY) return i;
+            }
+        }
+    }
+}
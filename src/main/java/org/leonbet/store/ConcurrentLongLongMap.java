@@ -0,0 +1,121 @@
+package org.leonbet.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing map from primitive long keys to primitive longs, two longs per slot and no
+ * objects per entry. Same publication scheme as {@link ConcurrentLongObjectMap}: lock-free
+ * reads, writers serialize on the map. Missing keys read as {@link #MISSING}, and removal
+ * stores it, so it cannot be a value. Key 0 marks free slots, so its value is kept in one
+ * extra slot behind the table.
+ */
+public final class ConcurrentLongLongMap {
+    public static final long MISSING = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private volatile Table table;
+    private int used; // occupied slots including removed ones, guarded by this
+    private int size;
+
+    public ConcurrentLongLongMap(int expectedSize) {
+        this.table = new Table(LongHash.capacityFor(expectedSize));
+    }
+
+    public long get(long key) {
+        Table t = table;
+        if (key == LongHash.EMPTY) return t.values.get(t.zeroSlot());
+        int mask = t.mask;
+        for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+            long k = t.keys.get(i);
+            if (k == key) return t.values.get(i);
+            if (k == LongHash.EMPTY) return MISSING;
+        }
+    }
+
+    // Returns the previous value, or MISSING if the key was absent
+    public synchronized long put(long key, long value) {
+        if (value == MISSING) throw new IllegalArgumentException("MISSING marks absent keys");
+        if (key == LongHash.EMPTY) {
+            long previous = table.values.getAndSet(table.zeroSlot(), value);
+            if (previous == MISSING) size++;
+            return previous;
+        }
+        if (used + 1 > table.capacity() * LOAD_FACTOR) {
+            table = grow(table, size + 1);
+        }
+
+        Table t = table;
+        int i = t.find(key);
+        if (t.keys.get(i) == key) {
+            long previous = t.values.getAndSet(i, value);
+            if (previous == MISSING) size++;
+            return previous;
+        }
+        t.values.set(i, value);
+        t.keys.set(i, key);
+        used++;
+        size++;
+        return MISSING;
+    }
+
+    public synchronized long remove(long key) {
+        Table t = table;
+        int i = key == LongHash.EMPTY ? t.zeroSlot() : t.find(key);
+        if (t.keys.get(i) != key) return MISSING;
+        long previous = t.values.getAndSet(i, MISSING);
+        if (previous != MISSING) size--;
+        return previous;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    private Table grow(Table old, int liveEntries) {
+        Table grown = new Table(LongHash.capacityFor(Math.max(liveEntries, old.capacity() / 2)));
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.keys.get(i);
+            long value = old.values.get(i);
+            if (key == LongHash.EMPTY || value == MISSING) continue;
+            int slot = grown.find(key);
+            grown.values.set(slot, value);
+            grown.keys.set(slot, key);
+        }
+        long zero = old.values.get(old.zeroSlot());
+        grown.values.set(grown.zeroSlot(), zero);
+        used = zero == MISSING ? size : size - 1;
+        return grown;
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity + 1);
+            this.values = new AtomicLongArray(capacity + 1);
+            this.mask = capacity - 1;
+            values.set(capacity, MISSING);
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int zeroSlot() {
+            return mask + 1;
+        }
+
+        int find(long key) {
+            for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key || k == LongHash.EMPTY) return i;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.leonbet.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing map from primitive long keys to objects, without boxing or entry nodes.
+ * Reads never lock: a slot's value is published before its key, and a grown table is
+ * published only once it is filled. Writers serialize on the map. Removal leaves the key in
+ * place with a null value, so probe chains stay intact; such slots are dropped on growth.
+ * Key 0 marks free slots, so its value is kept in one extra slot behind the table.
+ */
+public final class ConcurrentLongObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private volatile Table<V> table;
+    private int used; // occupied slots including removed ones, guarded by this
+    private int size;
+
+    public ConcurrentLongObjectMap(int expectedSize) {
+        this.table = new Table<>(LongHash.capacityFor(expectedSize));
+    }
+
+    public V get(long key) {
+        Table<V> t = table;
+        if (key == LongHash.EMPTY) return t.values.get(t.zeroSlot());
+        int mask = t.mask;
+        for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+            long k = t.keys.get(i);
+            if (k == key) return t.values.get(i);
+            if (k == LongHash.EMPTY) return null;
+        }
+    }
+
+    public synchronized V put(long key, V value) {
+        if (value == null) throw new NullPointerException("value");
+        if (key == LongHash.EMPTY) {
+            V previous = table.values.getAndSet(table.zeroSlot(), value);
+            if (previous == null) size++;
+            return previous;
+        }
+        if (used + 1 > table.capacity() * LOAD_FACTOR) {
+            table = grow(table, size + 1);
+        }
+
+        Table<V> t = table;
+        int i = t.find(key);
+        if (t.keys.get(i) == key) {
+            V previous = t.values.getAndSet(i, value);
+            if (previous == null) size++;
+            return previous;
+        }
+        t.values.set(i, value);
+        t.keys.set(i, key);
+        used++;
+        size++;
+        return null;
+    }
+
+    public synchronized V remove(long key) {
+        Table<V> t = table;
+        int i = key == LongHash.EMPTY ? t.zeroSlot() : t.find(key);
+        if (t.keys.get(i) != key) return null; // the zero slot's key is 0 as well
+        V previous = t.values.getAndSet(i, null);
+        if (previous != null) size--;
+        return previous;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Slots currently allocated, for footprint estimates
+    public int capacity() {
+        return table.capacity();
+    }
+
+    // Weakly consistent: sees every entry present for the whole iteration
+    public void forEach(Visitor<V> visitor) {
+        Table<V> t = table;
+        for (int i = 0; i < t.capacity(); i++) {
+            long key = t.keys.get(i);
+            if (key == LongHash.EMPTY) continue;
+            V value = t.values.get(i);
+            if (value != null) visitor.visit(key, value);
+        }
+        V zero = t.values.get(t.zeroSlot());
+        if (zero != null) visitor.visit(LongHash.EMPTY, zero);
+    }
+
+    public synchronized V computeIfAbsent(long key, LongFunction<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    private Table<V> grow(Table<V> old, int liveEntries) {
+        Table<V> grown = new Table<>(LongHash.capacityFor(Math.max(liveEntries, old.capacity() / 2)));
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.keys.get(i);
+            V value = old.values.get(i);
+            if (key == LongHash.EMPTY || value == null) continue;
+            int slot = grown.find(key);
+            grown.values.set(slot, value);
+            grown.keys.set(slot, key);
+        }
+        V zero = old.values.get(old.zeroSlot());
+        grown.values.set(grown.zeroSlot(), zero);
+        used = zero == null ? size : size - 1;
+        return grown;
+    }
+
+    @FunctionalInterface
+    public interface Visitor<V> {
+        void visit(long key, V value);
+    }
+
+    private static final class Table<V> {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<V> values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity + 1);
+            this.values = new AtomicReferenceArray<>(capacity + 1);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int zeroSlot() {
+            return mask + 1;
+        }
+
+        // Slot holding the key, or the free slot where it would go
+        int find(long key) {
+            for (int i = LongHash.slot(key, mask); ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key || k == LongHash.EMPTY) return i;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.leonbet.store;
+
+// Shared probing helpers of the open-addressing long-keyed maps
+final class LongHash {
+    // Key value marking a free slot; key 0 itself lives in an extra slot past the probed ones
+    static final long EMPTY = 0;
+
+    private LongHash() {} // Prevent instantiation
+
+    // Sequential ids differ in the low bits only, so mix them before masking (MurmurHash3 finalizer)
+    static int slot(long key, int mask) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    static int capacityFor(int expected) {
+        // At most half full once the expected entries are in
+        return Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+    }
+}
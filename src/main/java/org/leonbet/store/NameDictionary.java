@@ -0,0 +1,58 @@
+package org.leonbet.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns repeating names (markets, runners, leagues) as dense int codes, so stored events
+ * hold one int per name instead of a String reference to their own copy. Lookups in both
+ * directions are lock-free; only a name seen for the first time takes the lock. A null name
+ * is kept as {@value #NULL_CODE}.
+ */
+public final class NameDictionary {
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[256];
+    private int size; // guarded by this
+
+    public int encode(String name) {
+        if (name == null) return NULL_CODE;
+        Integer code = codes.get(name);
+        return code != null ? code : add(name);
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : names[code];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Bytes held by the dictionary: the strings themselves, the code map and the name table
+    public synchronized long estimatedBytes() {
+        long bytes = 16 + 4L * names.length;
+        for (int i = 0; i < size; i++) {
+            bytes += 40 + names[i].length() // String with its byte[], Latin-1 assumed
+                    + 32 + 16;              // map node and boxed code
+        }
+        return bytes;
+    }
+
+    private synchronized int add(String name) {
+        Integer existing = codes.get(name);
+        if (existing != null) return existing;
+
+        // The name is in the table before its code can be seen by anyone
+        String[] table = names;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+        }
+        table[size] = name;
+        names = table;
+        codes.put(name, size);
+        return size++;
+    }
+}
@@ -0,0 +1,285 @@
+package org.leonbet.store;
+
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.util.BenchmarkUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Latest known state of every fetched event, queryable without another request. Events are
+ * kept by id with their markets flattened into primitive arrays and their names
+ * dictionary-encoded; prices live in a separate runner id to price map, so a price lookup
+ * touches no event at all. Updates come from many fetch threads at once, reads never lock;
+ * updates and removals of the same event serialize on one of a fixed set of lock stripes, so
+ * the changes an update reports are exactly those against the update before it.
+ * Events leave the store when their league listing drops them or, at the owner's call, once
+ * they have kicked off.
+ */
+public final class OddsStore {
+    private static final int STRIPES = 256;
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final NameDictionary names = new NameDictionary();
+    private final String metricName;
+    private final ConcurrentLongObjectMap<StoredEvent> events;
+    private final ConcurrentLongDoubleMap prices;
+    // League id to the sorted event ids of its last listing
+    private final ConcurrentLongObjectMap<long[]> listings = new ConcurrentLongObjectMap<>(64);
+
+    public OddsStore(int expectedEvents) {
+        this(expectedEvents, "Odds Store");
+    }
+
+    // The metric name tells several stores apart in the report
+    public OddsStore(int expectedEvents, String metricName) {
+        this.metricName = metricName;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.events = new ConcurrentLongObjectMap<>(expectedEvents);
+        this.prices = new ConcurrentLongDoubleMap(expectedEvents * 32);
+        BenchmarkUtils.registerGauge(metricName + " Events", events::size);
+        BenchmarkUtils.registerGauge(metricName + " Runners", prices::size);
+        BenchmarkUtils.registerGauge(metricName + " Bytes (est.)", this::estimatedBytes);
+    }
+
+    public void update(String sport, String league, Event event) {
+        update(sport, league, event, null);
+    }
+
+    // Also reports every runner that was added, repriced or removed since the last update of the event
+    public void update(String sport, String league, Event event, PriceChanges changes) {
+        synchronized (stripe(event.id())) {
+            apply(sport, league, event, changes);
+        }
+    }
+
+    // Compares against the stored prices and replaces them, under the event's stripe
+    private void apply(String sport, String league, Event event, PriceChanges changes) {
+        int marketCount = event.markets().size();
+        long[] marketIds = new long[marketCount];
+        int[] marketNames = new int[marketCount];
+        int[] firstRunner = new int[marketCount + 1];
+        int runnerCount = 0;
+        for (Market market : event.markets()) {
+            runnerCount += market.runners().size();
+        }
+        long[] runnerIds = new long[runnerCount];
+        int[] runnerNames = new int[runnerCount];
+        double[] runnerPrices = new double[runnerCount];
+
+        int m = 0;
+        int r = 0;
+        for (Market market : event.markets()) {
+            marketIds[m] = market.id();
+            marketNames[m] = names.encode(market.name());
+            firstRunner[m] = r;
+            for (Runner runner : market.runners()) {
+                runnerIds[r] = runner.id();
+                runnerNames[r] = names.encode(runner.name());
+                runnerPrices[r] = runner.price();
+                if (changes != null) {
+                    double previous = prices.get(runner.id());
+                    if (Double.isNaN(previous)) {
+                        changes.added(m, r - firstRunner[m]);
+                    } else if (Double.compare(previous, runner.price()) != 0) {
+                        changes.repriced(m, r - firstRunner[m], previous);
+                    }
+                }
+                r++;
+            }
+            m++;
+        }
+        firstRunner[marketCount] = r;
+        prices.putAll(runnerIds, runnerPrices);
+
+        // Prices went in above, so whoever finds the new event also finds its prices
+        StoredEvent stored = new StoredEvent(event.id(), event.name(), event.kickoff(), event.kickoffMillis(),
+                names.encode(event.betline()), names.encode(sport), names.encode(league), marketIds, marketNames,
+                firstRunner, runnerIds, runnerNames);
+        StoredEvent previous = events.put(event.id(), stored);
+        if (previous != null) {
+            removeDroppedRunners(previous, runnerIds, changes);
+        }
+    }
+
+    public void remove(long eventId) {
+        synchronized (stripe(eventId)) {
+            StoredEvent previous = events.remove(eventId);
+            if (previous != null) {
+                removeDroppedRunners(previous, new long[0], null);
+            }
+        }
+    }
+
+    /**
+     * Takes the events a fresh listing of the league holds. Events of its previous listing that
+     * are missing now are removed, unless they were stored under another league since; each is
+     * passed to removed first, with its last prices.
+     */
+    public void retainListed(long leagueId, String league, long[] eventIds, Consumer<Event> removed) {
+        long[] listed = eventIds.clone();
+        Arrays.sort(listed);
+        long[] previous = listings.put(leagueId, listed);
+        if (previous == null) return;
+
+        int leagueName = names.encode(league);
+        for (long eventId : previous) {
+            if (Arrays.binarySearch(listed, eventId) >= 0) continue;
+            synchronized (stripe(eventId)) {
+                StoredEvent stored = events.get(eventId);
+                if (stored == null || stored.league != leagueName) continue;
+                if (removed != null) {
+                    removed.accept(stored.toEvent(names, prices));
+                }
+                remove(eventId);
+            }
+            BenchmarkUtils.count(metricName + " Evicted");
+        }
+    }
+
+    // Removes every event that kicked off before the given epoch millis, returning how many
+    public int removeStartedBefore(long millis) {
+        int[] evicted = new int[1];
+        // Removal only clears a value, so it is safe in the middle of a traversal
+        events.forEach((id, stored) -> {
+            if (stored.kickoffMillis >= millis) return;
+            synchronized (stripe(id)) {
+                // Checked again, an update may have replaced the event meanwhile
+                StoredEvent current = events.get(id);
+                if (current == null || current.kickoffMillis >= millis) return;
+                remove(id);
+            }
+            evicted[0]++;
+        });
+        BenchmarkUtils.count(metricName + " Evicted", evicted[0]);
+        return evicted[0];
+    }
+
+    // NaN when the runner is unknown
+    public double getPrice(long runnerId) {
+        return prices.get(runnerId);
+    }
+
+    // The event as last fetched, with the latest prices; null when unknown
+    public Event getEvent(long eventId) {
+        StoredEvent stored = events.get(eventId);
+        return stored == null ? null : stored.toEvent(names, prices);
+    }
+
+    public String getSport(long eventId) {
+        StoredEvent stored = events.get(eventId);
+        return stored == null ? null : names.decode(stored.sport);
+    }
+
+    public String getLeague(long eventId) {
+        StoredEvent stored = events.get(eventId);
+        return stored == null ? null : names.decode(stored.league);
+    }
+
+    public void forEachEventId(LongConsumer action) {
+        events.forEach((id, stored) -> action.accept(id));
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    public int getRunnerCount() {
+        return prices.size();
+    }
+
+    /**
+     * Heap held by the store, computed from array lengths and object layouts of a 64-bit JVM
+     * with compressed references.
+     */
+    public long estimatedBytes() {
+        long bytes = names.estimatedBytes()
+                + 16 + 16L * prices.capacity() + 32            // keys and price bits
+                + 16 + 12L * events.capacity() + 32;           // keys and references
+        long[] eventBytes = new long[1];
+        events.forEach((id, stored) -> eventBytes[0] += stored.estimatedBytes());
+        listings.forEach((id, listed) -> eventBytes[0] += 16 + 8L * listed.length);
+        return bytes + eventBytes[0];
+    }
+
+    private Object stripe(long eventId) {
+        return stripes[LongHash.slot(eventId, STRIPES - 1)];
+    }
+
+    private void removeDroppedRunners(StoredEvent previous, long[] current, PriceChanges changes) {
+        long[] sorted = current.clone();
+        Arrays.sort(sorted);
+        int m = 0;
+        for (int r = 0; r < previous.runnerIds.length; r++) {
+            while (r >= previous.firstRunner[m + 1]) m++;
+            long runnerId = previous.runnerIds[r];
+            if (Arrays.binarySearch(sorted, runnerId) >= 0) continue;
+
+            double price = prices.remove(runnerId);
+            if (changes != null) {
+                changes.removed(previous.marketIds[m], names.decode(previous.marketNames[m]), runnerId,
+                        names.decode(previous.runnerNames[r]), price);
+            }
+        }
+    }
+
+    private static final class StoredEvent {
+        final long id;
+        final String name;
+        final long kickoff;
+        final long kickoffMillis;
+        final int betline;
+        final int sport;
+        final int league;
+        final long[] marketIds;
+        final int[] marketNames;
+        final int[] firstRunner; // market i owns runners firstRunner[i] until firstRunner[i + 1]
+        final long[] runnerIds;
+        final int[] runnerNames;
+
+        StoredEvent(long id, String name, long kickoff, long kickoffMillis, int betline, int sport, int league,
+                    long[] marketIds, int[] marketNames, int[] firstRunner, long[] runnerIds, int[] runnerNames) {
+            this.id = id;
+            this.name = name;
+            this.kickoff = kickoff;
+            this.kickoffMillis = kickoffMillis;
+            this.betline = betline;
+            this.sport = sport;
+            this.league = league;
+            this.marketIds = marketIds;
+            this.marketNames = marketNames;
+            this.firstRunner = firstRunner;
+            this.runnerIds = runnerIds;
+            this.runnerNames = runnerNames;
+        }
+
+        Event toEvent(NameDictionary names, ConcurrentLongDoubleMap prices) {
+            List<Market> markets = new ArrayList<>(marketIds.length);
+            for (int m = 0; m < marketIds.length; m++) {
+                List<Runner> runners = new ArrayList<>(firstRunner[m + 1] - firstRunner[m]);
+                for (int r = firstRunner[m]; r < firstRunner[m + 1]; r++) {
+                    runners.add(new Runner(runnerIds[r], names.decode(runnerNames[r]), prices.get(runnerIds[r])));
+                }
+                markets.add(new Market(marketIds[m], names.decode(marketNames[m]), runners));
+            }
+            return new Event(id, name, kickoff, names.decode(betline), markets);
+        }
+
+        long estimatedBytes() {
+            return 64                                  // header and fields
+                    + 40 + (name == null ? 0 : name.length())
+                    + 16 + 8L * marketIds.length
+                    + 16 + 4L * marketNames.length
+                    + 16 + 4L * firstRunner.length
+                    + 16 + 8L * runnerIds.length
+                    + 16 + 4L * runnerNames.length;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.leonbet.store;
+
+/**
+ * Differences found by {@link OddsStore#update(String, String, org.leonbet.model.Event, PriceChanges)}.
+ * Runners of the fresh event are given by market and runner index, so nothing is allocated
+ * per runner; removed runners only exist in the store and come with its names.
+ */
+public interface PriceChanges {
+    void added(int market, int runner);
+
+    void repriced(int market, int runner, double previousPrice);
+
+    void removed(long marketId, String marketName, long runnerId, String runnerName, double previousPrice);
+}
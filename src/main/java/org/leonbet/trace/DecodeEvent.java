@@ -0,0 +1,33 @@
+package org.leonbet.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.leonbet.Decode")
+@Label("Decode")
+@Category({"LeonBet", "HTTP"})
+@Description("Reading and binding a response body. Streaming decoding includes the body transfer "
+        + "and decompression.")
+@StackTrace(false)
+class DecodeEvent extends jdk.jfr.Event {
+    @Label("Trace Id")
+    long traceId;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Bytes On Wire")
+    @DataAmount
+    long wireBytes;
+
+    @Label("Bytes Decoded")
+    @DataAmount
+    long decodedBytes;
+}
@@ -0,0 +1,23 @@
+package org.leonbet.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.leonbet.DecodeQueue")
+@Label("Decode Queued")
+@Category({"LeonBet", "HTTP"})
+@Description("A response waiting for a cpu pool thread to decode it")
+@StackTrace(false)
+class DecodeQueueEvent extends jdk.jfr.Event {
+    @Label("Trace Id")
+    long traceId;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Entity Id")
+    long entityId;
+}
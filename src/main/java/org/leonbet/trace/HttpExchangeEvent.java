@@ -0,0 +1,28 @@
+package org.leonbet.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.leonbet.HttpExchange")
+@Label("HTTP Exchange")
+@Category({"LeonBet", "HTTP"})
+@Description("From sending a request to its response headers: connection setup on a new connection, "
+        + "then waiting for the server. Buffered decoding also includes the body transfer.")
+@StackTrace(false)
+class HttpExchangeEvent extends jdk.jfr.Event {
+    @Label("Trace Id")
+    long traceId;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Status")
+    @Description("HTTP status, 0 when no response arrived")
+    int status;
+}
@@ -0,0 +1,22 @@
+package org.leonbet.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.leonbet.OutputWait")
+@Label("Output Wait")
+@Category({"LeonBet", "Pipeline"})
+@Description("A block of output waiting for room in the full output queue")
+@StackTrace(false)
+public class OutputWaitEvent extends jdk.jfr.Event {
+    @Label("Trace Id")
+    public long traceId;
+
+    @Label("Block Size")
+    @DataAmount
+    public long bytes;
+}
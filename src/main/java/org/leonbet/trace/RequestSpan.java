@@ -0,0 +1,72 @@
+package org.leonbet.trace;
+
+/**
+ * The phases of one request as flight recorder events: the exchange up to the response
+ * headers, the wait for a decoding thread and the decoding itself. Phases may end on other
+ * threads than they began on. The decoding phases are only recorded along with the exchange,
+ * so without a recording a span is one small object and a few no-op calls.
+ */
+public final class RequestSpan {
+    private final long traceId;
+    private final String endpoint;
+    private final long entityId;
+    private final HttpExchangeEvent exchange = new HttpExchangeEvent();
+    private DecodeQueueEvent queue;
+    private DecodeEvent decode;
+
+    private RequestSpan(long traceId, String endpoint, long entityId) {
+        this.traceId = traceId;
+        this.endpoint = endpoint;
+        this.entityId = entityId;
+        exchange.begin();
+    }
+
+    // Begins the exchange phase under the trace of the calling thread
+    public static RequestSpan start(String endpoint, long entityId) {
+        return new RequestSpan(Trace.current(), endpoint, entityId);
+    }
+
+    // The response headers arrived, status 0 when the exchange failed
+    public void responded(int status) {
+        if (!exchange.isEnabled()) return;
+
+        exchange.end();
+        queue = new DecodeQueueEvent();
+        queue.begin();
+        if (exchange.shouldCommit()) {
+            exchange.traceId = traceId;
+            exchange.endpoint = endpoint;
+            exchange.entityId = entityId;
+            exchange.status = status;
+            exchange.commit();
+        }
+    }
+
+    public void decodeStarted() {
+        if (queue == null) return;
+
+        queue.end();
+        decode = new DecodeEvent();
+        decode.begin();
+        if (queue.shouldCommit()) {
+            queue.traceId = traceId;
+            queue.endpoint = endpoint;
+            queue.entityId = entityId;
+            queue.commit();
+        }
+    }
+
+    public void decoded(long wireBytes, long decodedBytes) {
+        if (decode == null) return;
+
+        decode.end();
+        if (decode.shouldCommit()) {
+            decode.traceId = traceId;
+            decode.endpoint = endpoint;
+            decode.entityId = entityId;
+            decode.wireBytes = wireBytes;
+            decode.decodedBytes = decodedBytes;
+            decode.commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.leonbet.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One item handled by a scrape stage. Create it when the item is picked up, then call
+ * {@link #finish} once it is done; nothing is recorded unless a recording enables it.
+ */
+@Name("org.leonbet.Stage")
+@Label("Scrape Stage")
+@Category({"LeonBet", "Pipeline"})
+@Description("One league or event handled by a stage of the scrape")
+@StackTrace(false)
+public final class StageEvent extends jdk.jfr.Event {
+    @Label("Trace Id")
+    long traceId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Sport")
+    String sport;
+
+    @Label("League")
+    String league;
+
+    @Label("Event Id")
+    @Description("0 for stages that handle a whole league")
+    long eventId;
+
+    @Label("Queued")
+    @Description("Time from submitting the item to a worker picking it up")
+    @Timespan(Timespan.NANOSECONDS)
+    long queued;
+
+    // submittedNanos is the System.nanoTime() of the submit, 0 for work that was not queued
+    public StageEvent(long submittedNanos) {
+        begin();
+        if (submittedNanos != 0 && isEnabled()) {
+            queued = System.nanoTime() - submittedNanos;
+        }
+    }
+
+    public void finish(String stage, long traceId, String sport, String league, long eventId) {
+        end();
+        if (!shouldCommit()) return;
+
+        this.stage = stage;
+        this.traceId = traceId;
+        this.sport = sport;
+        this.league = league;
+        this.eventId = eventId;
+        commit();
+    }
+}
@@ -0,0 +1,46 @@
+package org.leonbet.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The trace id of the work running on the current thread. One id follows a league poll from
+ * its listing through the details, storage and rendering of each of its events, and is
+ * attached to every flight recorder event along the way. Code that moves a request to
+ * another thread captures the id first and restores it there. Zero means no trace.
+ */
+public final class Trace {
+    private static final AtomicLong ids = new AtomicLong();
+    // A holder per thread, so changing the id doesn't box it
+    private static final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[1]);
+
+    private Trace() {} // Prevent instantiation
+
+    public static long newId() {
+        return ids.incrementAndGet();
+    }
+
+    public static long current() {
+        return current.get()[0];
+    }
+
+    // Returns the previous id, to be restored once the traced work is done
+    public static long set(long traceId) {
+        long[] holder = current.get();
+        long previous = holder[0];
+        holder[0] = traceId;
+        return previous;
+    }
+
+    // Runs the task under the trace of the thread that wraps it
+    public static Runnable wrap(Runnable task) {
+        long traceId = current();
+        return () -> {
+            long previous = set(traceId);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+}
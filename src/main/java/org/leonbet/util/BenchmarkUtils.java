@@ -1,18 +1,30 @@
 package org.leonbet.util;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 public final class BenchmarkUtils {
-    private static final Map<String, AtomicLong> totalTime = Collections.synchronizedMap(new LinkedHashMap<>());
-    private static final Map<String, AtomicLong> callCount = Collections.synchronizedMap(new LinkedHashMap<>());
-    private static boolean enabled = false;
+    // Keyed by a bounded set of stage names; per-entity names go into the tag instead
+    private static final Map<String, LatencyHistogram> stages = new ConcurrentHashMap<>();
+    private static final List<String> stageOrder = new CopyOnWriteArrayList<>();
+    // Counters are bumped from request callbacks, so they must not take the global lock
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static volatile boolean enabled = false;
 
     // Column widths for table formatting
-    private static final int OPERATION_COL_WIDTH = 75;
+    private static final int OPERATION_COL_WIDTH = 30;
     private static final int CALLS_COL_WIDTH = 10;
-    private static final int TOTAL_TIME_COL_WIDTH = 15;
-    private static final int AVG_TIME_COL_WIDTH = 15;
+    private static final int TIME_COL_WIDTH = 12;
+    private static final int ALLOC_COL_WIDTH = 14;
+    private static final int SLOWEST_COL_WIDTH = 40;
+    private static final int COUNTER_COL_WIDTH = 75;
+    private static final int VALUE_COL_WIDTH = 15;
     private static final String SEPARATOR = "+";
     private static final String HORIZONTAL_LINE = "-";
 
@@ -33,62 +45,175 @@ public final class BenchmarkUtils {
 
     public static void reset() {
         if (!enabled) return;
-        synchronized (totalTime) {
-            totalTime.clear();
-            callCount.clear();
+        stages.clear();
+        stageOrder.clear();
+        counters.clear();
+    }
+
+    // startNanos comes from System.nanoTime()
+    public static void record(String stage, long startNanos) {
+        record(stage, null, startNanos);
+    }
+
+    // The tag names the entity (league, match...) and is kept for the slowest sample only
+    public static void record(String stage, String tag, long startNanos) {
+        if (!enabled) return;
+        histogram(stage).record(System.nanoTime() - startNanos, tag);
+    }
+
+    public static void count(String counter) {
+        count(counter, 1);
+    }
+
+    public static void count(String counter, long delta) {
+        if (!enabled) return;
+        LongAdder adder = counters.get(counter);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(counter, k -> new LongAdder());
         }
+        adder.add(delta);
     }
 
-    public static void record(String operation, long startTime) {
+    // Gauges are sampled when the report is printed
+    public static void registerGauge(String gauge, LongSupplier value) {
+        gauges.put(gauge, value);
+    }
+
+    // Heap bytes allocated so far by the calling thread; pair with recordAllocation
+    public static long threadAllocatedBytes() {
+        if (!enabled) return 0;
+        return ThreadBean.INSTANCE.getCurrentThreadAllocatedBytes();
+    }
+
+    // Records time and heap allocation of a section that ran entirely on the calling thread
+    public static void recordAllocation(String stage, long startNanos, long startAllocatedBytes) {
         if (!enabled) return;
-        
-        long duration = System.currentTimeMillis() - startTime;
-        synchronized (totalTime) {
-            totalTime.computeIfAbsent(operation, k -> new AtomicLong()).addAndGet(duration);
-            callCount.computeIfAbsent(operation, k -> new AtomicLong()).incrementAndGet();
+
+        long allocated = ThreadBean.INSTANCE.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+        LatencyHistogram histogram = histogram(stage);
+        histogram.addAllocation(allocated);
+        histogram.record(System.nanoTime() - startNanos, null);
+    }
+
+    // Time since the JVM started, so it includes class loading and initialization before main
+    public static void recordSinceStartup(String stage) {
+        if (!enabled) return;
+        long sinceStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        histogram(stage).record(TimeUnit.MILLISECONDS.toNanos(sinceStart), null);
+    }
+
+    public static Map<String, LatencyHistogram> getStages() {
+        Map<String, LatencyHistogram> snapshot = new LinkedHashMap<>();
+        stageOrder.forEach(stage -> snapshot.put(stage, stages.get(stage)));
+        return snapshot;
+    }
+
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((counter, value) -> snapshot.put(counter, value.sum()));
+        return snapshot;
+    }
+
+    public static Map<String, Long> getGauges() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        synchronized (gauges) {
+            gauges.forEach((gauge, value) -> snapshot.put(gauge, value.getAsLong()));
         }
+        return snapshot;
+    }
+
+    private static LatencyHistogram histogram(String stage) {
+        LatencyHistogram histogram = stages.get(stage);
+        if (histogram != null) return histogram;
+        return stages.computeIfAbsent(stage, k -> {
+            stageOrder.add(k);
+            return new LatencyHistogram();
+        });
     }
 
     private static String createHorizontalLine() {
         return SEPARATOR +
                HORIZONTAL_LINE.repeat(OPERATION_COL_WIDTH) + SEPARATOR +
                HORIZONTAL_LINE.repeat(CALLS_COL_WIDTH) + SEPARATOR +
-               HORIZONTAL_LINE.repeat(TOTAL_TIME_COL_WIDTH) + SEPARATOR +
-               HORIZONTAL_LINE.repeat(AVG_TIME_COL_WIDTH) + SEPARATOR;
+               (HORIZONTAL_LINE.repeat(TIME_COL_WIDTH) + SEPARATOR).repeat(6) +
+               HORIZONTAL_LINE.repeat(ALLOC_COL_WIDTH) + SEPARATOR +
+               HORIZONTAL_LINE.repeat(SLOWEST_COL_WIDTH) + SEPARATOR;
     }
 
-    private static String formatRow(String operation, String calls, String totalTime, String avgTime) {
+    private static String formatRow(String operation, String calls, String total, String avg, String p50,
+                                    String p90, String p99, String max, String avgAlloc, String slowest) {
+        String time = "| %" + (TIME_COL_WIDTH-1) + "s";
         return String.format("| %-" + (OPERATION_COL_WIDTH-1) + "s" +
                            "| %" + (CALLS_COL_WIDTH-1) + "s" +
-                           "| %" + (TOTAL_TIME_COL_WIDTH-1) + "s" +
-                           "| %" + (AVG_TIME_COL_WIDTH-1) + "s|",
-                           operation, calls, totalTime, avgTime);
+                           time.repeat(6) +
+                           "| %" + (ALLOC_COL_WIDTH-1) + "s" +
+                           "| %-" + (SLOWEST_COL_WIDTH-1) + "s|",
+                           operation, calls, total, avg, p50, p90, p99, max, avgAlloc, slowest);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private static String truncate(String value, int width) {
+        if (value == null) return "";
+        return value.length() <= width ? value : value.substring(0, width - 3) + "...";
     }
 
     public static void printReport() {
-        if (!enabled || totalTime.isEmpty()) return;
+        if (!enabled || (stages.isEmpty() && counters.isEmpty() && gauges.isEmpty())) return;
 
         System.out.println("\n=== Benchmark Report ===");
         
-        String horizontalLine = createHorizontalLine();
-        System.out.println(horizontalLine);
-        System.out.println(formatRow("Operation", "Calls", "Total Time(ms)", "Avg Time(ms)"));
-        System.out.println(horizontalLine);
-
-        synchronized (totalTime) {
-            totalTime.forEach((operation, time) -> {
-                long calls = callCount.get(operation).get();
-                double avgTime = (double) time.get() / calls;
+        if (!stages.isEmpty()) {
+            String horizontalLine = createHorizontalLine();
+            System.out.println(horizontalLine);
+            System.out.println(formatRow("Operation", "Calls", "Total(ms)", "Avg(ms)", "p50(ms)", "p90(ms)",
+                    "p99(ms)", "Max(ms)", "Avg Alloc(KB)", "Slowest"));
+            System.out.println(horizontalLine);
+
+            getStages().forEach((stage, histogram) -> {
+                long calls = histogram.getCount();
+                if (calls == 0) return;
+                long allocated = histogram.getAllocatedBytes();
                 System.out.println(formatRow(
-                    operation,
+                    truncate(stage, OPERATION_COL_WIDTH - 1),
                     String.valueOf(calls),
-                    String.valueOf(time.get()),
-                    String.format("%.2f", avgTime)
+                    millis(histogram.getTotalNanos()),
+                    millis(histogram.getTotalNanos() / calls),
+                    millis(histogram.getPercentileNanos(50)),
+                    millis(histogram.getPercentileNanos(90)),
+                    millis(histogram.getPercentileNanos(99)),
+                    millis(histogram.getMaxNanos()),
+                    allocated == 0 ? "-" : String.format("%.1f", allocated / 1024.0 / calls),
+                    truncate(histogram.getSlowestTag(), SLOWEST_COL_WIDTH - 1)
                 ));
             });
+
+            System.out.println(horizontalLine);
+        }
+
+        if (!counters.isEmpty() || !gauges.isEmpty()) {
+            String counterLine = SEPARATOR + HORIZONTAL_LINE.repeat(COUNTER_COL_WIDTH) + SEPARATOR +
+                    HORIZONTAL_LINE.repeat(VALUE_COL_WIDTH) + SEPARATOR;
+            String counterRow = "| %-" + (COUNTER_COL_WIDTH-1) + "s| %" + (VALUE_COL_WIDTH-1) + "s|";
+            System.out.println(counterLine);
+            System.out.println(String.format(counterRow, "Counter", "Value"));
+            System.out.println(counterLine);
+            new TreeMap<>(counters).forEach((counter, value) ->
+                    System.out.println(String.format(counterRow, counter, value.sum())));
+            synchronized (gauges) {
+                gauges.forEach((gauge, value) ->
+                        System.out.println(String.format(counterRow, gauge, value.getAsLong())));
+            }
+            System.out.println(counterLine);
         }
-        
-        System.out.println(horizontalLine);
         System.out.println();
     }
-} 
\ No newline at end of file
+
+    // Loads the management classes on first use rather than on every startup
+    private static final class ThreadBean {
+        private static final com.sun.management.ThreadMXBean INSTANCE =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
@@ -0,0 +1,112 @@
+package org.leonbet.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of nanosecond durations: each power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so a reported percentile is within 12.5% of
+ * the recorded value. Buckets are striped LongAdders created on first use, so concurrent
+ * recording from many threads doesn't contend on a shared counter or lock.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final AtomicReference<Sample> slowest = new AtomicReference<>(new Sample(-1, null));
+
+    public void record(long nanos, String tag) {
+        long value = Math.max(0, nanos);
+        bucket(indexOf(value)).increment();
+        count.increment();
+        totalNanos.add(value);
+
+        // Keep the slowest sample with its tag; the CAS only runs on a new maximum
+        Sample current = slowest.get();
+        while (value > current.nanos) {
+            if (slowest.compareAndSet(current, new Sample(value, tag))) break;
+            current = slowest.get();
+        }
+    }
+
+    public void addAllocation(long bytes) {
+        allocatedBytes.add(bytes);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    public long getMaxNanos() {
+        return Math.max(0, slowest.get().nanos);
+    }
+
+    // Entity name of the slowest sample, if one was tagged
+    public String getSlowestTag() {
+        return slowest.get().tag;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), capped at the maximum
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder adder = buckets.get(i);
+            if (adder != null) {
+                snapshot[i] = adder.sum();
+                total += snapshot[i];
+            }
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder adder = buckets.get(index);
+        if (adder == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            adder = buckets.get(index);
+        }
+        return adder;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    private record Sample(long nanos, String tag) {}
+}
@@ -0,0 +1,155 @@
+package org.leonbet.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.leonbet.client.Endpoint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves everything BenchmarkUtils collects at /metrics in the Prometheus text format.
+ * Nothing extra is recorded for it: the hot path keeps bumping the same LongAdders and
+ * histograms, and all formatting happens on the server thread when a scrape arrives.
+ *
+ * <p>Names ending in an endpoint name become an {@code endpoint} label, so "Fetch League
+ * Events" is {@code leonbet_fetch_seconds{endpoint="league-events"}}. Stages are summaries,
+ * counters end in {@code _total}, gauges keep their name.
+ */
+public final class MetricsServer implements AutoCloseable {
+    private static final String PREFIX = "leonbet_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String EVENTS_STAGE = "Print Match";
+
+    private final HttpServer server;
+    private long lastEvents;
+    private long lastScrapeNanos = System.nanoTime();
+
+    public MetricsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = render().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String render() {
+        Map<String, StringBuilder> families = new LinkedHashMap<>();
+
+        BenchmarkUtils.getStages().forEach((stage, histogram) -> {
+            Name name = Name.of(stage);
+            StringBuilder family = family(families, name.metric + "_seconds", "summary");
+            for (double quantile : QUANTILES) {
+                sample(family, name.metric + "_seconds", name.labels("quantile", String.valueOf(quantile)),
+                        seconds(histogram.getPercentileNanos(quantile * 100)));
+            }
+            sample(family, name.metric + "_seconds_sum", name.labels(null, null), seconds(histogram.getTotalNanos()));
+            sample(family, name.metric + "_seconds_count", name.labels(null, null), histogram.getCount());
+            sample(family(families, name.metric + "_max_seconds", "gauge"), name.metric + "_max_seconds",
+                    name.labels(null, null), seconds(histogram.getMaxNanos()));
+        });
+
+        BenchmarkUtils.getCounters().forEach((counter, value) -> {
+            Name name = Name.of(counter);
+            sample(family(families, name.metric + "_total", "counter"), name.metric + "_total",
+                    name.labels(null, null), value);
+        });
+
+        BenchmarkUtils.getGauges().forEach((gauge, value) -> {
+            Name name = Name.of(gauge);
+            sample(family(families, name.metric, "gauge"), name.metric, name.labels(null, null), value);
+        });
+
+        sample(family(families, PREFIX + "events_per_second", "gauge"), PREFIX + "events_per_second", "",
+                eventsPerSecond());
+
+        StringBuilder out = new StringBuilder(4096);
+        families.values().forEach(out::append);
+        return out.toString();
+    }
+
+    // Rate of rendered matches since the previous scrape; rate() over the count works as well
+    private synchronized double eventsPerSecond() {
+        LatencyHistogram events = BenchmarkUtils.getStages().get(EVENTS_STAGE);
+        long count = events == null ? 0 : events.getCount();
+        long now = System.nanoTime();
+        double rate = (count - lastEvents) / ((now - lastScrapeNanos) / 1e9);
+        lastEvents = count;
+        lastScrapeNanos = now;
+        return rate;
+    }
+
+    private static StringBuilder family(Map<String, StringBuilder> families, String metric, String type) {
+        return families.computeIfAbsent(metric, m -> new StringBuilder("# TYPE " + m + " " + type + "\n"));
+    }
+
+    private static void sample(StringBuilder family, String metric, String labels, double value) {
+        family.append(metric).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder family, String metric, String labels, long value) {
+        family.append(metric).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    // Metric name and optional endpoint label derived from a report name
+    private record Name(String metric, String endpoint) {
+        static Name of(String reportName) {
+            for (Endpoint<?> endpoint : Endpoint.values()) {
+                String suffix = " " + endpoint.getName();
+                if (reportName.endsWith(suffix)) {
+                    return new Name(sanitize(reportName.substring(0, reportName.length() - suffix.length())),
+                            endpoint.getKey());
+                }
+            }
+            return new Name(sanitize(reportName), null);
+        }
+
+        String labels(String extraName, String extraValue) {
+            StringBuilder labels = new StringBuilder();
+            if (endpoint != null) {
+                labels.append("endpoint=\"").append(endpoint).append('"');
+            }
+            if (extraName != null) {
+                if (!labels.isEmpty()) labels.append(',');
+                labels.append(extraName).append("=\"").append(extraValue).append('"');
+            }
+            return labels.isEmpty() ? "" : "{" + labels + "}";
+        }
+
+        private static String sanitize(String name) {
+            String metric = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_").replaceAll("^_|_$", "");
+            return PREFIX + metric;
+        }
+    }
+}
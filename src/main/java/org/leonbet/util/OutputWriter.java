@@ -0,0 +1,154 @@
+package org.leonbet.util;
+
+import org.leonbet.trace.OutputWaitEvent;
+import org.leonbet.trace.Trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Single writer thread behind a bounded queue. Producers hand over complete blocks, which
+ * are written whole and never interleave. Everything queued since the last write goes
+ * out in one write per channel (group commit). A full queue blocks producers, so a slow
+ * output throttles the work that feeds it. Blocks handed over after close are rejected:
+ * producers enqueue under a shared lock that close takes exclusively, so nothing can land
+ * behind the end marker.
+ */
+public final class OutputWriter implements AutoCloseable {
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_BATCH_BYTES = 1024 * 1024;
+    private static final byte[] END = new byte[0]; // compared by identity
+
+    private final BlockingQueue<byte[]> queue;
+    private final List<WritableByteChannel> channels;
+    private final Thread thread;
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private boolean closed; // guarded by closing
+
+    public OutputWriter(List<WritableByteChannel> channels, int capacity) {
+        this.channels = List.copyOf(channels);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "output-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void write(byte[] block) {
+        Lock lock = closing.readLock();
+        lock.lock();
+        try {
+            if (closed) {
+                BenchmarkUtils.count("Output Rejected After Close");
+                System.err.println("Output already closed, dropped " + block.length + " bytes");
+                return;
+            }
+            enqueue(block);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Writes out everything queued so far, then stops the writer thread
+    @Override
+    public void close() {
+        Lock lock = closing.writeLock();
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            enqueue(END);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A full queue is drained by the writer thread, which never takes the lock
+    private void enqueue(byte[] block) {
+        if (queue.offer(block)) return;
+
+        OutputWaitEvent wait = new OutputWaitEvent();
+        wait.begin();
+        try {
+            queue.put(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wait.end();
+        if (wait.shouldCommit()) {
+            wait.traceId = Trace.current();
+            wait.bytes = block.length;
+            wait.commit();
+        }
+    }
+
+    private void run() {
+        List<byte[]> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH_BYTES);
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            long startTime = System.nanoTime();
+            for (byte[] block : batch) {
+                if (block == END) {
+                    running = false;
+                    break;
+                }
+                if (block.length > buffer.remaining()) {
+                    flush(buffer);
+                }
+                if (block.length > buffer.capacity()) {
+                    writeToChannels(ByteBuffer.wrap(block));
+                } else {
+                    buffer.put(block);
+                }
+            }
+            batch.clear();
+            flush(buffer);
+            BenchmarkUtils.record("Output Flush", startTime);
+        }
+    }
+
+    private void flush(ByteBuffer buffer) {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        writeToChannels(buffer);
+        buffer.clear();
+    }
+
+    private void writeToChannels(ByteBuffer bytes) {
+        for (WritableByteChannel channel : channels) {
+            ByteBuffer view = bytes.duplicate();
+            try {
+                while (view.hasRemaining()) {
+                    channel.write(view);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write output: " + e.getMessage());
+            }
+        }
+    }
+}
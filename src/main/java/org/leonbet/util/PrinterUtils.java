@@ -2,21 +2,37 @@ package org.leonbet.util;
 
 import org.leonbet.config.AppConfig;
 
-import java.io.FileWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class PrinterUtils {
-    private static PrintWriter fileWriter;
     private static final String INDENT = "\t";
+    private static final int QUEUE_CAPACITY = 1024;
     private static final Object lock = new Object();
-    
+    private static String pendingFile;
+    private static FileChannel fileChannel;
+    private static volatile OutputWriter writer;
+
     private PrinterUtils() {} // Prevent instantiation
 
+    // The file is created with the first write, so a run that fails early leaves none behind
     public static void initFile(String fileName) {
+        synchronized (lock) {
+            pendingFile = fileName;
+        }
+    }
+
+    private static void openFile(String fileName) {
         try {
             Path reportsPath = Paths.get(AppConfig.getReportsDir());
             if (!Files.exists(reportsPath)) {
@@ -24,27 +40,78 @@ public final class PrinterUtils {
             }
 
             Path reportFile = reportsPath.resolve(fileName);
-            fileWriter = new PrintWriter(new FileWriter(reportFile.toFile()));
+            fileChannel = FileChannel.open(reportFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (IOException e) {
             System.err.println("Failed to create output file: " + e.getMessage());
         }
     }
 
-    public static void closeFile() {
-        if (fileWriter != null) {
-            fileWriter.close();
+    // Drains pending output and closes the report file
+    public static void close() {
+        synchronized (lock) {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close output file: " + e.getMessage());
+                }
+                fileChannel = null;
+            }
         }
     }
 
     public static void print(int indentLevel, String message) {
-        String indentedMessage = INDENT.repeat(indentLevel) + message;
+        write(INDENT.repeat(indentLevel) + message + System.lineSeparator());
+    }
+
+    // Renders one line into a block that is later handed to write() as a whole
+    public static StringBuilder appendLine(StringBuilder block, int indentLevel, String message) {
+        for (int i = 0; i < indentLevel; i++) {
+            block.append(INDENT);
+        }
+        return block.append(message).append(System.lineSeparator());
+    }
+
+    // Queues a complete block; it is written atomically by the output thread
+    public static void write(String block) {
+        write(block.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void write(byte[] block) {
+        getWriter().write(block);
+    }
+
+    public static int getQueueDepth() {
+        OutputWriter current = writer;
+        return current != null ? current.getQueueDepth() : 0;
+    }
+
+    private static OutputWriter getWriter() {
+        OutputWriter current = writer;
+        if (current != null) return current;
+
         synchronized (lock) {
-            System.out.println(indentedMessage);
-            
-            if (AppConfig.isPrintToFile() && fileWriter != null) {
-                fileWriter.println(indentedMessage);
-                fileWriter.flush();
+            if (writer == null) {
+                List<WritableByteChannel> channels = new ArrayList<>();
+                // Binary output would only garble the terminal
+                if (AppConfig.getOutputFormat().isText()) {
+                    channels.add(new FileOutputStream(FileDescriptor.out).getChannel());
+                }
+                if (AppConfig.isPrintToFile() && pendingFile != null) {
+                    openFile(pendingFile);
+                    pendingFile = null;
+                }
+                if (AppConfig.isPrintToFile() && fileChannel != null) {
+                    channels.add(fileChannel);
+                }
+                writer = new OutputWriter(channels, QUEUE_CAPACITY);
             }
+            return writer;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package org.leonbet.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimitTest {
+    private static final long RTT = 1_000_000L;
+
+    @Test
+    void growsByAboutOnePerRoundTripWhileTheLimitIsUsed() {
+        AimdLimit limit = new AimdLimit(10, 1, 100);
+        for (int i = 0; i < 11; i++) {
+            limit.onSample(RTT, false, limit.get());
+        }
+        assertEquals(11, limit.get());
+    }
+
+    @Test
+    void doesNotGrowWhileMostOfTheLimitIsIdle() {
+        AimdLimit limit = new AimdLimit(10, 1, 100);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(RTT, false, 4);
+        }
+        assertEquals(10, limit.get());
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        AimdLimit limit = new AimdLimit(10, 1, 12);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(RTT, false, limit.get());
+        }
+        assertEquals(12, limit.get());
+    }
+
+    @Test
+    void shrinksByTheBackoffRatioWhenOverloaded() {
+        AimdLimit limit = new AimdLimit(20, 1, 100);
+        limit.onSample(RTT, true, 20);
+        assertEquals(18, limit.get());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesWellAboveTheBaseline() {
+        AimdLimit limit = new AimdLimit(20, 1, 100);
+        limit.onSample(RTT, false, 20);
+        assertEquals(20, limit.get());
+
+        limit.onSample(5 * RTT, false, 20);
+        assertEquals(18, limit.get());
+    }
+
+    @Test
+    void neverShrinksBelowTheMinimum() {
+        AimdLimit limit = new AimdLimit(20, 3, 100);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, true, 20);
+        }
+        assertEquals(3, limit.get());
+    }
+
+    @Test
+    void clampsTheInitialLimitToItsBounds() {
+        assertEquals(5, new AimdLimit(50, 1, 5).get());
+        assertEquals(2, new AimdLimit(0, 2, 5).get());
+        assertTrue(new AimdLimit(1, 0, 0).get() >= 1);
+    }
+}
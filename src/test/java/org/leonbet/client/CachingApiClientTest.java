@@ -0,0 +1,165 @@
+package org.leonbet.client;
+
+import org.junit.jupiter.api.Test;
+import org.leonbet.model.Event;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingApiClientTest {
+    private static final Validators V1 = new Validators("\"v1\"", null);
+    private static final Validators V2 = new Validators("\"v2\"", null);
+
+    @Test
+    void freshEntryIsServedWithoutARequest() {
+        Event event = event(1);
+        ScriptedClient delegate = new ScriptedClient(ApiResponse.of(event, Validators.NONE, 100, 100));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ofHours(1), 16, 1 << 20);
+
+        fetch(cache, 1);
+        ApiResponse<Event> second = fetch(cache, 1);
+
+        assertEquals(1, delegate.sent.size());
+        assertSame(event, second.value());
+        assertEquals(0, second.wireBytes());
+    }
+
+    @Test
+    void expiredEntryIsRevalidatedAndKeptOnNotModified() {
+        Event event = event(1);
+        ScriptedClient delegate = new ScriptedClient(
+                ApiResponse.of(event, V1, 100, 100),
+                ApiResponse.unchanged(V1),
+                ApiResponse.unchanged(V1));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ZERO, 16, 1 << 20);
+
+        fetch(cache, 1);
+        ApiResponse<Event> second = fetch(cache, 1);
+        ApiResponse<Event> third = fetch(cache, 1);
+
+        assertEquals(List.of(Validators.NONE, V1, V1), delegate.sent);
+        for (ApiResponse<Event> response : List.of(second, third)) {
+            assertFalse(response.notModified());
+            assertSame(event, response.value());
+            assertEquals(0, response.wireBytes());
+        }
+    }
+
+    @Test
+    void changedRevalidationReplacesTheEntryAndItsValidators() {
+        Event changed = event(1);
+        ScriptedClient delegate = new ScriptedClient(
+                ApiResponse.of(event(1), V1, 100, 100),
+                ApiResponse.of(changed, V2, 100, 100),
+                ApiResponse.unchanged(V2));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ZERO, 16, 1 << 20);
+
+        fetch(cache, 1);
+        assertSame(changed, fetch(cache, 1).value());
+        assertSame(changed, fetch(cache, 1).value());
+        assertEquals(List.of(Validators.NONE, V1, V2), delegate.sent);
+    }
+
+    @Test
+    void callerValidatorsPassThroughUncached() {
+        ScriptedClient delegate = new ScriptedClient(ApiResponse.unchanged(V1));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ofHours(1), 16, 1 << 20);
+
+        ApiResponse<Event> response = cache.exchange(Endpoint.EVENT_DETAILS, 1, V1).join();
+
+        assertEquals(List.of(V1), delegate.sent);
+        assertTrue(response.notModified());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void entryLargerThanTheBudgetIsNotStoredAndEvictsNothing() {
+        ScriptedClient delegate = new ScriptedClient(
+                ApiResponse.of(event(1), V1, 40, 40),
+                ApiResponse.of(event(2), V1, 40, 40),
+                ApiResponse.of(event(3), V1, 500, 500),
+                ApiResponse.of(event(3), V1, 500, 500));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ofHours(1), 16, 100);
+
+        fetch(cache, 1);
+        fetch(cache, 2);
+        fetch(cache, 3);
+        assertEquals(2, cache.size());
+
+        // Not cached, so asking again goes to the delegate; the small entries are still fresh
+        fetch(cache, 3);
+        fetch(cache, 1);
+        fetch(cache, 2);
+        assertEquals(4, delegate.sent.size());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void entryThatGrowsPastTheBudgetDropsItsStaleCopy() {
+        ScriptedClient delegate = new ScriptedClient(
+                ApiResponse.of(event(1), V1, 40, 40),
+                ApiResponse.of(event(1), V2, 500, 500));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ZERO, 16, 100);
+
+        fetch(cache, 1);
+        assertEquals(1, cache.size());
+        fetch(cache, 1);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverTheByteBudget() {
+        ScriptedClient delegate = new ScriptedClient(
+                ApiResponse.of(event(1), V1, 40, 40),
+                ApiResponse.of(event(2), V1, 40, 40),
+                ApiResponse.of(event(3), V1, 40, 40),
+                ApiResponse.of(event(2), V1, 40, 40));
+        CachingApiClient cache = new CachingApiClient(delegate, endpoint -> Duration.ofHours(1), 16, 100);
+
+        fetch(cache, 1);
+        fetch(cache, 2);
+        fetch(cache, 1); // hit, so 2 is now the eldest
+        fetch(cache, 3);
+        assertEquals(2, cache.size());
+        assertEquals(3, delegate.sent.size());
+
+        fetch(cache, 1);
+        assertEquals(3, delegate.sent.size());
+        fetch(cache, 2);
+        assertEquals(4, delegate.sent.size());
+    }
+
+    private static ApiResponse<Event> fetch(CachingApiClient cache, long id) {
+        return cache.exchange(Endpoint.EVENT_DETAILS, id, Validators.NONE).join();
+    }
+
+    private static Event event(long id) {
+        return new Event(id, "Home - Away", 1_700_000_000_000L, null, List.of());
+    }
+
+    // Answers each request with the next scripted response and records the validators it was sent
+    private static final class ScriptedClient implements ApiClient {
+        private final Deque<ApiResponse<?>> responses;
+        private final List<Validators> sent = new ArrayList<>();
+
+        private ScriptedClient(ApiResponse<?>... responses) {
+            this.responses = new ArrayDeque<>(List.of(responses));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+            sent.add(validators);
+            return CompletableFuture.completedFuture((ApiResponse<T>) responses.removeFirst());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.leonbet.client;
+
+import org.junit.jupiter.api.Test;
+import org.leonbet.model.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitingApiClientTest {
+
+    @Test
+    void synchronousFailuresDrainALongQueueWithoutNesting() {
+        CompletableFuture<ApiResponse<Event>> first = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        ApiClient delegate = new ApiClient() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+                if (calls.getAndIncrement() == 0) return (CompletableFuture<ApiResponse<T>>) (Object) first;
+                return CompletableFuture.failedFuture(new ApiException(503, "test"));
+            }
+        };
+        LimitingApiClient client = new LimitingApiClient(delegate, new AimdLimit(1, 1, 1), null);
+
+        List<CompletableFuture<ApiResponse<Event>>> results = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            results.add(client.exchange(Endpoint.EVENT_DETAILS, i + 1, Validators.NONE));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(99_999, client.getQueueDepth());
+
+        // Every queued request now fails on the stack of the one before
+        first.complete(ApiResponse.of(null, Validators.NONE, 0, 0));
+
+        assertEquals(100_000, calls.get());
+        assertEquals(0, client.getQueueDepth());
+        assertEquals(0, client.getInFlight());
+        assertTrue(results.get(0).isDone() && !results.get(0).isCompletedExceptionally());
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i).isCompletedExceptionally(), "request " + i);
+        }
+    }
+
+    @Test
+    void rateCeilingAloneDoesNotCapConcurrency() {
+        AtomicInteger calls = new AtomicInteger();
+        ApiClient delegate = new ApiClient() {
+            @Override
+            public <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint<T> endpoint, long id, Validators validators) {
+                calls.incrementAndGet();
+                return new CompletableFuture<>();
+            }
+        };
+        LimitingApiClient client = new LimitingApiClient(delegate, null, new TokenBucket(1_000_000, 1000));
+
+        for (int i = 0; i < 100; i++) {
+            client.exchange(Endpoint.EVENT_DETAILS, i + 1, Validators.NONE);
+        }
+
+        assertEquals(100, calls.get());
+        assertEquals(100, client.getInFlight());
+        assertEquals(0, client.getQueueDepth());
+    }
+}
@@ -0,0 +1,41 @@
+package org.leonbet.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLACK = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void burstIsFreeThenWaitsAreSpacedAtTheRate() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+
+        long third = bucket.reserve();
+        long fourth = bucket.reserve();
+        long fifth = bucket.reserve();
+        assertBetween(INTERVAL - SLACK, INTERVAL, third);
+        assertBetween(INTERVAL - SLACK, INTERVAL + SLACK, fourth - third);
+        assertBetween(INTERVAL - SLACK, INTERVAL + SLACK, fifth - fourth);
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        bucket.reserve();
+        Thread.sleep(100);
+
+        assertEquals(0, bucket.reserve());
+        assertTrue(bucket.reserve() > 0);
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+}
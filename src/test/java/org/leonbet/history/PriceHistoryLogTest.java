@@ -0,0 +1,86 @@
+package org.leonbet.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceHistoryLogTest {
+    private static final long SEGMENT_BYTES = 1 << 20;
+    private static final long OBSERVED = 1_700_000_000_000L;
+
+    private static Event event(long id, double price) {
+        return new Event(id, "Event " + id, OBSERVED, "prematch", List.of(
+                new Market(id * 10 + 1, "Winner", List.of(
+                        new Runner(id * 100 + 1, "Home", price),
+                        new Runner(id * 100 + 2, "Away", price + 1)))));
+    }
+
+    @Test
+    void completedSegmentIsTruncatedToItsRecords(@TempDir Path dir) throws IOException {
+        try (PriceHistoryLog log = new PriceHistoryLog(dir, SEGMENT_BYTES)) {
+            log.append(event(1, 1.5), OBSERVED);
+            log.append(event(2, 2.5), OBSERVED);
+        }
+
+        Path segment = PriceHistoryLog.segmentFile(dir, 1, PriceHistoryLog.SEGMENT_SUFFIX);
+        assertEquals(PriceHistoryLog.HEADER_BYTES + 4 * PriceHistoryLog.RECORD_BYTES, Files.size(segment));
+        assertEquals(2, read(dir, 1).size());
+        assertEquals(2, read(dir, 2).size());
+    }
+
+    @Test
+    void eventIdZeroIsReadLikeAnyOther(@TempDir Path dir) throws IOException {
+        try (PriceHistoryLog log = new PriceHistoryLog(dir, SEGMENT_BYTES)) {
+            log.append(event(0, 1.5), OBSERVED);
+            log.append(event(3, 2.5), OBSERVED);
+            log.append(event(0, 1.6), OBSERVED + 1);
+        }
+
+        assertEquals(List.of(1.5, 2.5, 1.6, 2.6), read(dir, 0));
+        assertEquals(List.of(2.5, 3.5), read(dir, 3));
+    }
+
+    @Test
+    void segmentWithoutIndexIsScannedUpToItsRecordCount(@TempDir Path dir) throws IOException {
+        try (PriceHistoryLog log = new PriceHistoryLog(dir, SEGMENT_BYTES)) {
+            log.append(event(0, 1.5), OBSERVED);
+            log.append(event(3, 2.5), OBSERVED);
+        }
+        // As if the writer had died before completing the segment
+        Files.delete(PriceHistoryLog.segmentFile(dir, 1, PriceHistoryLog.INDEX_SUFFIX));
+
+        assertEquals(List.of(1.5, 2.5), read(dir, 0));
+        assertEquals(List.of(2.5, 3.5), read(dir, 3));
+    }
+
+    @Test
+    void fullSegmentsRollOver(@TempDir Path dir) throws IOException {
+        long segmentBytes = PriceHistoryLog.HEADER_BYTES + 3 * PriceHistoryLog.RECORD_BYTES;
+        try (PriceHistoryLog log = new PriceHistoryLog(dir, segmentBytes)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(event(7, i), OBSERVED + i);
+            }
+        }
+
+        assertEquals(10, read(dir, 7).size());
+        assertEquals(segmentBytes, Files.size(PriceHistoryLog.segmentFile(dir, 1, PriceHistoryLog.SEGMENT_SUFFIX)));
+        assertEquals(PriceHistoryLog.HEADER_BYTES + PriceHistoryLog.RECORD_BYTES,
+                Files.size(PriceHistoryLog.segmentFile(dir, 4, PriceHistoryLog.SEGMENT_SUFFIX)));
+    }
+
+    private static List<Double> read(Path dir, long eventId) throws IOException {
+        List<Double> prices = new ArrayList<>();
+        PriceHistoryReader.read(dir, eventId, (event, market, runner, price, timestamp) -> prices.add(price));
+        return prices;
+    }
+}
@@ -0,0 +1,116 @@
+package org.leonbet.output;
+
+import org.junit.jupiter.api.Test;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+import org.leonbet.store.OddsStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiffSinkTest {
+    private static final long KICKOFF = 1_700_000_000_000L;
+    private static final long LEAGUE = 7;
+
+    private static Event event(long id, double price) {
+        return new Event(id, "Event " + id, KICKOFF, "prematch", List.of(
+                new Market(id * 10, "Winner", List.of(
+                        new Runner(id * 100, "Home", price),
+                        new Runner(id * 100 + 1, "Away", price + 1)))));
+    }
+
+    @Test
+    void firstSightIsWrittenInFullAndUnchangedEventsNotAtAll() {
+        RecordingSink out = new RecordingSink();
+        DiffSink diff = new DiffSink(out, new OddsStore(16, "Diff Test"), Duration.ZERO);
+
+        diff.writeMatch("Football", "Premier", event(1, 1.5));
+        diff.writeMatch("Football", "Premier", event(1, 1.5));
+
+        assertEquals(List.of(event(1, 1.5)), out.written);
+    }
+
+    @Test
+    void changesCarryOnlyRepricedAndRemovedRunners() {
+        RecordingSink out = new RecordingSink();
+        DiffSink diff = new DiffSink(out, new OddsStore(16, "Diff Test"), Duration.ZERO);
+        diff.writeMatch("Football", "Premier", event(1, 1.5));
+
+        diff.writeMatch("Football", "Premier", new Event(1, "Event 1", KICKOFF, "prematch", List.of(
+                new Market(10, "Winner", List.of(new Runner(100, "Home", 1.8))))));
+
+        Market market = out.written.get(1).markets().get(0);
+        assertEquals(2, market.runners().size());
+        assertEquals(new Runner(100, "Home", 1.8), market.runners().get(0));
+        assertEquals(101, market.runners().get(1).id());
+        assertTrue(Double.isNaN(market.runners().get(1).price()));
+    }
+
+    @Test
+    void eventDroppedFromItsListingIsWrittenWithoutPricesAndForgotten() {
+        RecordingSink out = new RecordingSink();
+        OddsStore store = new OddsStore(16, "Diff Test");
+        DiffSink diff = new DiffSink(out, store, Duration.ZERO);
+
+        diff.writeMatch("Football", "Premier", event(1, 1.5));
+        diff.writeMatch("Football", "Premier", event(2, 2.5));
+        diff.leagueListed("Football", "Premier", LEAGUE, new long[] {1, 2});
+        assertEquals(2, out.written.size());
+
+        diff.leagueListed("Football", "Premier", LEAGUE, new long[] {1});
+
+        assertEquals(3, out.written.size());
+        Event removed = out.written.get(2);
+        assertEquals(2, removed.id());
+        assertEquals(2, removed.markets().get(0).runners().size());
+        for (Runner runner : removed.markets().get(0).runners()) {
+            assertTrue(Double.isNaN(runner.price()));
+        }
+        assertNull(store.getEvent(2));
+        assertEquals(1, store.getEventCount());
+
+        // Listings are passed on, and a returning event counts as a first sight again
+        assertEquals(2, out.listings.size());
+        assertArrayEquals(new long[] {1}, out.listings.get(1));
+        diff.writeMatch("Football", "Premier", event(2, 2.5));
+        assertEquals(event(2, 2.5), out.written.get(3));
+    }
+
+    @Test
+    void eventListedUnderAnotherLeagueIsNotRemoved() {
+        RecordingSink out = new RecordingSink();
+        OddsStore store = new OddsStore(16, "Diff Test");
+        DiffSink diff = new DiffSink(out, store, Duration.ZERO);
+
+        diff.writeMatch("Football", "Premier", event(1, 1.5));
+        diff.leagueListed("Football", "Premier", LEAGUE, new long[] {1});
+        // The event moved leagues and was updated there before the old league was listed again
+        diff.writeMatch("Football", "Championship", event(1, 1.5));
+        diff.leagueListed("Football", "Premier", LEAGUE, new long[] {});
+
+        assertEquals(1, out.written.size());
+        assertEquals(event(1, 1.5), store.getEvent(1));
+    }
+
+    private static final class RecordingSink implements OutputSink {
+        private final List<Event> written = new ArrayList<>();
+        private final List<long[]> listings = new ArrayList<>();
+
+        @Override
+        public void writeMatch(String sport, String league, Event event) {
+            written.add(event);
+        }
+
+        @Override
+        public void leagueListed(String sport, String league, long leagueId, long[] eventIds) {
+            listings.add(eventIds);
+        }
+    }
+}
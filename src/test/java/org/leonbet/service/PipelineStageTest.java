@@ -0,0 +1,105 @@
+package org.leonbet.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineStageTest {
+
+    @Test
+    void orderedStageHandsOutSmallestFirstAndEndsAfterQueuedWork() throws InterruptedException {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        Gate gate = new Gate(handled::add);
+        PipelineStage<Integer> stage = new PipelineStage<>("Ordered", 1, 16, Thread.ofPlatform().daemon(),
+                Comparator.naturalOrder(), gate);
+
+        stage.submit(0);
+        gate.awaitHeld();
+        for (int item : new int[] {5, 3, 9, 1}) {
+            stage.submit(item);
+        }
+        // The end marker joins the queue behind the real work while the worker is still busy
+        Thread finisher = Thread.ofPlatform().start(stage::finish);
+        awaitQueueDepth(stage, 5);
+        gate.open();
+        finisher.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(finisher.isAlive());
+        assertEquals(List.of(0, 1, 3, 5, 9), handled);
+    }
+
+    @Test
+    void fifoStageFinishesEverythingQueuedBeforeFinish() {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        PipelineStage<Integer> stage = new PipelineStage<>("Fifo", 3, 8, Thread.ofPlatform().daemon(), handled::add);
+
+        for (int i = 0; i < 1000; i++) {
+            stage.submit(i);
+        }
+        stage.finish();
+
+        assertEquals(1000, handled.size());
+        assertEquals(1000, handled.stream().distinct().count());
+    }
+
+    @Test
+    void trySubmitRefusesInsteadOfWaitingWhileFull() throws InterruptedException {
+        Gate gate = new Gate(item -> { });
+        PipelineStage<Integer> stage = new PipelineStage<>("Full", 1, 1, Thread.ofPlatform().daemon(), gate);
+
+        stage.submit(0);
+        gate.awaitHeld();
+        assertTrue(stage.trySubmit(1));
+        assertFalse(stage.trySubmit(2));
+
+        gate.open();
+        stage.finish();
+    }
+
+    private static void awaitQueueDepth(PipelineStage<?> stage, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (stage.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, stage.getQueueDepth());
+    }
+
+    // Holds the worker on the first item until opened
+    private static final class Gate implements Consumer<Integer> {
+        private final Consumer<Integer> handler;
+        private final CountDownLatch held = new CountDownLatch(1);
+        private final CountDownLatch opened = new CountDownLatch(1);
+
+        private Gate(Consumer<Integer> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void accept(Integer item) {
+            handler.accept(item);
+            held.countDown();
+            try {
+                opened.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitHeld() throws InterruptedException {
+            assertTrue(held.await(10, TimeUnit.SECONDS));
+        }
+
+        void open() {
+            opened.countDown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.leonbet.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.leonbet.config.AppConfig;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshScheduleTest {
+    private static final long HOUR = 3_600_000;
+    private static final long NOW = 1_700_000_000_000L;
+    // Far enough out that no other test's events fall into this tier
+    private static final long KICKOFF = NOW + 1001 * HOUR;
+
+    @BeforeAll
+    static void configure() {
+        AppConfig.setKickoffRefreshInterval("1000=600");
+    }
+
+    @Test
+    void claimsOncePerInterval() {
+        RefreshSchedule schedule = new RefreshSchedule();
+        assertTrue(schedule.claim(1, KICKOFF, NOW));
+        assertFalse(schedule.claim(1, KICKOFF, NOW + 1000));
+        assertTrue(schedule.claim(1, KICKOFF, NOW + 600_000));
+    }
+
+    @Test
+    void releasedClaimIsRetriedOnTheNextPoll() {
+        RefreshSchedule schedule = new RefreshSchedule();
+        assertTrue(schedule.claim(1, KICKOFF, NOW));
+        schedule.release(1, NOW);
+        assertTrue(schedule.claim(1, KICKOFF, NOW + 1000));
+    }
+
+    @Test
+    void staleReleaseKeepsALaterClaim() {
+        RefreshSchedule schedule = new RefreshSchedule();
+        assertTrue(schedule.claim(1, KICKOFF, NOW));
+        assertTrue(schedule.claim(1, KICKOFF, NOW + 600_000));
+        schedule.release(1, NOW);
+        assertFalse(schedule.claim(1, KICKOFF, NOW + 601_000));
+    }
+}
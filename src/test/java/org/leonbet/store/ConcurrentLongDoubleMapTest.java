@@ -0,0 +1,173 @@
+package org.leonbet.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongDoubleMapTest {
+
+    @Test
+    void putGetRemove() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(16);
+        assertTrue(Double.isNaN(map.get(42)));
+
+        assertTrue(Double.isNaN(map.put(42, 1.5)));
+        assertEquals(1.5, map.put(42, 2.5));
+        assertEquals(2.5, map.get(42));
+        assertEquals(1, map.size());
+
+        assertEquals(2.5, map.remove(42));
+        assertTrue(Double.isNaN(map.get(42)));
+        assertTrue(Double.isNaN(map.remove(42)));
+        assertEquals(0, map.size());
+
+        assertTrue(Double.isNaN(map.put(42, 3.5)));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void keyZeroIsAnOrdinaryKey() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(4);
+        assertTrue(Double.isNaN(map.get(0)));
+        map.put(0, 0.0);
+        assertEquals(0.0, map.get(0));
+        assertEquals(1, map.size());
+
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key, key);
+        }
+        assertEquals(0.0, map.get(0));
+        assertEquals(1001, map.size());
+
+        assertEquals(0.0, map.remove(0));
+        assertTrue(Double.isNaN(map.get(0)));
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    void negativeKeysAndValues() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(4);
+        map.put(Long.MIN_VALUE, -1.0);
+        map.put(-7, Double.NEGATIVE_INFINITY);
+        assertEquals(-1.0, map.get(Long.MIN_VALUE));
+        assertEquals(Double.NEGATIVE_INFINITY, map.get(-7));
+    }
+
+    @Test
+    void rejectsNaN() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(4);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, Double.NaN));
+    }
+
+    @Test
+    void growingKeepsLiveEntriesAndDropsRemovedOnes() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(16);
+        int initialCapacity = map.capacity();
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, key * 0.5);
+        }
+        assertTrue(map.capacity() > initialCapacity);
+        for (long key = 1; key <= 10_000; key += 2) {
+            map.remove(key);
+        }
+        for (long key = 10_001; key <= 20_000; key++) {
+            map.put(key, key * 0.5);
+        }
+
+        assertEquals(15_000, map.size());
+        for (long key = 1; key <= 20_000; key++) {
+            boolean removed = key <= 10_000 && key % 2 == 1;
+            if (removed) {
+                assertTrue(Double.isNaN(map.get(key)), "key " + key);
+            } else {
+                assertEquals(key * 0.5, map.get(key), "key " + key);
+            }
+        }
+    }
+
+    @Test
+    void putAll() {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(4);
+        map.putAll(new long[] {1, 2, 0}, new double[] {1.1, 2.2, 3.3});
+        assertEquals(1.1, map.get(1));
+        assertEquals(2.2, map.get(2));
+        assertEquals(3.3, map.get(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void readersSeeEveryPublishedKeyWhileTheMapGrows() throws InterruptedException {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(16);
+        int keys = 200_000;
+        AtomicLong published = new AtomicLong();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                long seed = Thread.currentThread().threadId();
+                while (published.get() < keys && failure.get() == null) {
+                    long upTo = published.get();
+                    if (upTo == 0) continue;
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    long key = 1 + Math.floorMod(seed, upTo);
+                    double value = map.get(key);
+                    if (value != key * 0.25) {
+                        failure.compareAndSet(null, "key " + key + " read " + value);
+                    }
+                }
+            }));
+        }
+        for (long key = 1; key <= keys; key++) {
+            map.put(key, key * 0.25);
+            published.set(key);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(keys, map.size());
+    }
+
+    @Test
+    void concurrentWritersLoseNothing() throws InterruptedException {
+        ConcurrentLongDoubleMap map = new ConcurrentLongDoubleMap(16);
+        int writers = 4;
+        int perWriter = 50_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long offset = (long) w * perWriter;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long key = offset; key < offset + perWriter; key++) {
+                    map.put(key, key + 0.5);
+                    if (key % 3 == 0) map.remove(key);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = 0;
+        for (long key = 0; key < (long) writers * perWriter; key++) {
+            if (key % 3 == 0) {
+                assertTrue(Double.isNaN(map.get(key)), "key " + key);
+            } else {
+                assertEquals(key + 0.5, map.get(key), "key " + key);
+                expected++;
+            }
+        }
+        assertEquals(expected, map.size());
+    }
+}
@@ -0,0 +1,46 @@
+package org.leonbet.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentLongLongMapTest {
+
+    @Test
+    void putGetRemove() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(16);
+        assertEquals(ConcurrentLongLongMap.MISSING, map.get(42));
+
+        assertEquals(ConcurrentLongLongMap.MISSING, map.put(42, 0));
+        assertEquals(0, map.put(42, -5));
+        assertEquals(-5, map.get(42));
+
+        assertEquals(-5, map.remove(42));
+        assertEquals(ConcurrentLongLongMap.MISSING, map.get(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void keyZeroSurvivesGrowth() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(4);
+        map.put(0, 99);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, key * 3);
+        }
+        assertEquals(99, map.get(0));
+        assertEquals(10_001, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key * 3, map.get(key));
+        }
+
+        assertEquals(99, map.remove(0));
+        assertEquals(ConcurrentLongLongMap.MISSING, map.get(0));
+    }
+
+    @Test
+    void rejectsMissing() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(4);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, ConcurrentLongLongMap.MISSING));
+    }
+}
@@ -0,0 +1,164 @@
+package org.leonbet.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    void putGetRemove() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>(16);
+        assertNull(map.get(42));
+
+        assertNull(map.put(42, "a"));
+        assertEquals("a", map.put(42, "b"));
+        assertEquals("b", map.get(42));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(42));
+        assertNull(map.get(42));
+        assertNull(map.remove(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void keyZeroIsAnOrdinaryKey() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>(4);
+        map.put(0, "zero");
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key, Long.toString(key));
+        }
+        assertEquals("zero", map.get(0));
+        assertEquals(1001, map.size());
+
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(1001, visited.size());
+        assertEquals("zero", visited.get(0L));
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.get(0));
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    void rejectsNullValues() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>(4);
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void computeIfAbsentCreatesOnce() {
+        ConcurrentLongObjectMap<StringBuilder> map = new ConcurrentLongObjectMap<>(4);
+        StringBuilder first = map.computeIfAbsent(7, key -> new StringBuilder("7"));
+        StringBuilder second = map.computeIfAbsent(7, key -> new StringBuilder("other"));
+        assertSame(first, second);
+        assertSame(first, map.get(7));
+    }
+
+    @Test
+    void growingKeepsLiveEntriesAndDropsRemovedOnes() {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(16);
+        int initialCapacity = map.capacity();
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, key);
+        }
+        assertTrue(map.capacity() > initialCapacity);
+        for (long key = 1; key <= 10_000; key += 2) {
+            map.remove(key);
+        }
+        for (long key = 10_001; key <= 20_000; key++) {
+            map.put(key, key);
+        }
+
+        assertEquals(15_000, map.size());
+        int[] visited = new int[1];
+        map.forEach((key, value) -> {
+            assertEquals(key, value.longValue());
+            visited[0]++;
+        });
+        assertEquals(15_000, visited[0]);
+        for (long key = 1; key <= 10_000; key += 2) {
+            assertNull(map.get(key), "key " + key);
+        }
+    }
+
+    @Test
+    void readersSeeEveryPublishedKeyWhileTheMapGrows() throws InterruptedException {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(16);
+        int keys = 200_000;
+        AtomicLong published = new AtomicLong();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                long seed = Thread.currentThread().threadId();
+                while (published.get() < keys && failure.get() == null) {
+                    long upTo = published.get();
+                    if (upTo == 0) continue;
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    long key = 1 + Math.floorMod(seed, upTo);
+                    Long value = map.get(key);
+                    if (value == null || value != key) {
+                        failure.compareAndSet(null, "key " + key + " read " + value);
+                    }
+                }
+            }));
+        }
+        for (long key = 1; key <= keys; key++) {
+            map.put(key, key);
+            published.set(key);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(keys, map.size());
+    }
+
+    @Test
+    void concurrentWritersLoseNothing() throws InterruptedException {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(16);
+        int writers = 4;
+        int perWriter = 50_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long offset = (long) w * perWriter;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long key = offset; key < offset + perWriter; key++) {
+                    map.put(key, key);
+                    if (key % 3 == 0) map.remove(key);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = 0;
+        for (long key = 0; key < (long) writers * perWriter; key++) {
+            if (key % 3 == 0) {
+                assertNull(map.get(key), "key " + key);
+            } else {
+                assertEquals(key, map.get(key), "key " + key);
+                expected++;
+            }
+        }
+        assertEquals(expected, map.size());
+    }
+}
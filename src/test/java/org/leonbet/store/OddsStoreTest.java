@@ -0,0 +1,204 @@
+package org.leonbet.store;
+
+import org.junit.jupiter.api.Test;
+import org.leonbet.model.Event;
+import org.leonbet.model.Market;
+import org.leonbet.model.Runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OddsStoreTest {
+    private static final long HOUR = 3_600_000;
+    private static final long KICKOFF = 1_700_000_000_000L;
+
+    private static Event event(long id, long kickoffMillis, double price) {
+        return new Event(id, "Event " + id, kickoffMillis, "prematch", List.of(
+                new Market(id * 10, "Winner", List.of(
+                        new Runner(id * 100, "Home", price),
+                        new Runner(id * 100 + 1, "Away", price + 1)))));
+    }
+
+    @Test
+    void updateAndRead() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+
+        assertEquals(1.5, store.getPrice(100));
+        assertEquals(2.5, store.getPrice(101));
+        assertEquals("Football", store.getSport(1));
+        assertEquals("Premier", store.getLeague(1));
+        assertEquals(event(1, KICKOFF, 1.5), store.getEvent(1));
+        assertEquals(1, store.getEventCount());
+        assertEquals(2, store.getRunnerCount());
+    }
+
+    @Test
+    void reportsChangesAndDropsRemovedRunners() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+
+        Event repriced = new Event(1, "Event 1", KICKOFF, "prematch", List.of(
+                new Market(10, "Winner", List.of(new Runner(100, "Home", 1.7), new Runner(102, "Draw", 3.0)))));
+        List<String> changes = new ArrayList<>();
+        store.update("Football", "Premier", repriced, new PriceChanges() {
+            @Override
+            public void added(int market, int runner) {
+                changes.add("added " + market + ":" + runner);
+            }
+
+            @Override
+            public void repriced(int market, int runner, double previousPrice) {
+                changes.add("repriced " + market + ":" + runner + " from " + previousPrice);
+            }
+
+            @Override
+            public void removed(long marketId, String marketName, long runnerId, String runnerName,
+                                double previousPrice) {
+                changes.add("removed " + runnerId + " " + runnerName + " from " + previousPrice);
+            }
+        });
+
+        assertEquals(List.of("repriced 0:0 from 1.5", "added 0:1", "removed 101 Away from 2.5"), changes);
+        assertTrue(Double.isNaN(store.getPrice(101)));
+        assertEquals(2, store.getRunnerCount());
+    }
+
+    @Test
+    void removeDropsEventAndPrices() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+        store.remove(1);
+
+        assertNull(store.getEvent(1));
+        assertTrue(Double.isNaN(store.getPrice(100)));
+        assertEquals(0, store.getEventCount());
+        assertEquals(0, store.getRunnerCount());
+    }
+
+    @Test
+    void retainListedRemovesEventsMissingFromTheNextListing() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.retainListed(7, "Premier", new long[] {1, 2}, null);
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+        store.update("Football", "Premier", event(2, KICKOFF, 2.5));
+
+        List<Event> removed = new ArrayList<>();
+        store.retainListed(7, "Premier", new long[] {2, 3}, removed::add);
+
+        assertEquals(List.of(event(1, KICKOFF, 1.5)), removed);
+        assertNull(store.getEvent(1));
+        assertTrue(Double.isNaN(store.getPrice(100)));
+        assertNotNull(store.getEvent(2));
+    }
+
+    @Test
+    void retainListedKeepsEventsStoredUnderAnotherLeague() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.retainListed(7, "Premier", new long[] {1}, null);
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+        store.update("Football", "Cup", event(1, KICKOFF, 1.6));
+
+        store.retainListed(7, "Premier", new long[0], null);
+
+        assertEquals(1.6, store.getPrice(100));
+        assertEquals("Cup", store.getLeague(1));
+    }
+
+    @Test
+    void removeStartedBefore() {
+        OddsStore store = new OddsStore(16, "Test Store");
+        store.update("Football", "Premier", event(1, KICKOFF, 1.5));
+        store.update("Football", "Premier", event(2, KICKOFF + 2 * HOUR, 2.5));
+        // Kickoff in seconds, as the API sometimes sends it
+        store.update("Football", "Premier", event(3, KICKOFF / 1000, 3.5));
+
+        assertEquals(2, store.removeStartedBefore(KICKOFF + HOUR));
+        assertNull(store.getEvent(1));
+        assertNull(store.getEvent(3));
+        assertNotNull(store.getEvent(2));
+        assertEquals(2, store.getRunnerCount());
+    }
+
+    @Test
+    void concurrentUpdatesOfDistinctEvents() throws InterruptedException {
+        OddsStore store = new OddsStore(16, "Test Store");
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            long offset = w * 1000L;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long id = offset + 1; id <= offset + 1000; id++) {
+                    store.update("Football", "League " + offset, event(id, KICKOFF, id));
+                    if (id % 5 == 0) store.remove(id);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(3200, store.getEventCount());
+        assertEquals(6400, store.getRunnerCount());
+        for (long id = 1; id <= 4000; id++) {
+            if (id % 5 == 0) {
+                assertNull(store.getEvent(id));
+            } else {
+                assertEquals(event(id, KICKOFF, id), store.getEvent(id));
+            }
+        }
+    }
+
+    @Test
+    void concurrentUpdatesOfOneEventReportEveryChangeOnce() throws InterruptedException {
+        OddsStore store = new OddsStore(16, "Test Store");
+        int threads = 4;
+        int perThread = 5000;
+        AtomicInteger added = new AtomicInteger();
+        Set<Double> previousPrices = ConcurrentHashMap.newKeySet();
+        AtomicInteger reusedPrevious = new AtomicInteger();
+        PriceChanges changes = new PriceChanges() {
+            @Override
+            public void added(int market, int runner) {
+                added.incrementAndGet();
+            }
+
+            @Override
+            public void repriced(int market, int runner, double previousPrice) {
+                // Every price is written once, so it can be the previous one of one update only
+                if (runner == 0 && !previousPrices.add(previousPrice)) reusedPrevious.incrementAndGet();
+            }
+
+            @Override
+            public void removed(long marketId, String marketName, long runnerId, String runnerName,
+                                double previousPrice) {
+            }
+        };
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    store.update("Football", "Premier", event(1, KICKOFF, base + i), changes);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(2, added.get());
+        assertEquals(0, reusedPrevious.get());
+        assertEquals(threads * perThread - 1, previousPrices.size());
+        assertFalse(Double.isNaN(store.getPrice(100)));
+    }
+}